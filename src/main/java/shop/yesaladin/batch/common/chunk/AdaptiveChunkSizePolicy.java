@@ -0,0 +1,192 @@
+package shop.yesaladin.batch.common.chunk;
+
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+
+/**
+ * chunk 트랜잭션에 걸린 시간이 목표 시간에 가까워지도록 chunk 크기를 조절하는 CompletionPolicy 입니다.
+ * <p>
+ * chunk 가 목표 시간보다 빨리 끝나면 최대 2배까지 키우고, 늦게 끝나면 걸린 시간에 비례하여 줄입니다. 교착 상태로 재시도하는 경우에는 즉시 절반으로
+ * 줄입니다. chunk 크기는 Step ExecutionContext 에 저장되므로 파티션마다 따로 조절되고, 재시작하면 마지막 크기부터 시작합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+public class AdaptiveChunkSizePolicy extends CompletionPolicySupport implements ChunkListener, RetryListener {
+
+    public static final String CHUNK_SIZE_KEY = "adaptiveChunk.size";
+    public static final String ADJUSTMENT_COUNT_KEY = "adaptiveChunk.adjustmentCount";
+    public static final String LAST_ADJUSTMENT_KEY = "adaptiveChunk.lastAdjustment";
+
+    private static final double TOLERANCE = 0.2;
+    private static final int MAX_GROWTH = 2;
+
+    private final int initialSize;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetMillis;
+    private final ThreadLocal<Long> chunkStartNanos = new ThreadLocal<>();
+
+    public AdaptiveChunkSizePolicy(int initialSize, int minSize, int maxSize, long targetMillis) {
+        this.minSize = minSize;
+        this.maxSize = Math.max(minSize, maxSize);
+        this.initialSize = clamp(initialSize);
+        this.targetMillis = targetMillis;
+    }
+
+    /**
+     * 현재 Step 의 chunk 크기로 완료 여부를 판단하는 RepeatContext 를 생성합니다.
+     *
+     * @param parent 상위 RepeatContext
+     * @return chunk 크기를 담은 RepeatContext
+     */
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        return new ChunkSizeContext(parent, currentChunkSize());
+    }
+
+    /**
+     * 읽은 item 의 수가 chunk 를 시작할 때의 chunk 크기에 도달했는지 확인합니다.
+     *
+     * @param context start 에서 생성한 RepeatContext
+     * @return chunk 크기만큼 읽은 경우 true
+     */
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return ((ChunkSizeContext) context).getStartedCount() >= ((ChunkSizeContext) context).chunkSize;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        chunkStartNanos.set(System.nanoTime());
+    }
+
+    /**
+     * chunk 트랜잭션에 걸린 시간으로 다음 chunk 의 크기를 계산합니다.
+     *
+     * @param context 완료된 chunk 의 ChunkContext
+     */
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Long startNanos = chunkStartNanos.get();
+        chunkStartNanos.remove();
+        if (Objects.isNull(startNanos)) {
+            return;
+        }
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - startNanos) / 1_000_000);
+        if (Math.abs(elapsedMillis - targetMillis) <= targetMillis * TOLERANCE) {
+            return;
+        }
+
+        StepExecution stepExecution = context.getStepContext().getStepExecution();
+        synchronized (stepExecution) {
+            int size = chunkSize(stepExecution.getExecutionContext());
+            int resized = (int) Math.min((long) size * MAX_GROWTH, size * targetMillis / elapsedMillis);
+            adjust(stepExecution, size, resized, "commit " + elapsedMillis + "ms");
+        }
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkStartNanos.remove();
+    }
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(
+            RetryContext context,
+            RetryCallback<T, E> callback,
+            Throwable throwable
+    ) {
+        // 재시도가 끝난 후에는 조절하지 않습니다.
+    }
+
+    /**
+     * 교착 상태로 chunk 를 재시도하는 경우 다음 chunk 의 크기를 즉시 절반으로 줄입니다.
+     *
+     * @param context   재시도 RetryContext
+     * @param callback  재시도할 RetryCallback
+     * @param throwable 재시도 원인 예외
+     */
+    @Override
+    public <T, E extends Throwable> void onError(
+            RetryContext context,
+            RetryCallback<T, E> callback,
+            Throwable throwable
+    ) {
+        if (!(throwable instanceof DeadlockLoserDataAccessException)) {
+            return;
+        }
+
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (Objects.isNull(stepContext)) {
+            return;
+        }
+
+        StepExecution stepExecution = stepContext.getStepExecution();
+        synchronized (stepExecution) {
+            int size = chunkSize(stepExecution.getExecutionContext());
+            adjust(stepExecution, size, size / 2, "deadlock retry");
+        }
+    }
+
+    private int currentChunkSize() {
+        StepContext stepContext = StepSynchronizationManager.getContext();
+        if (Objects.isNull(stepContext)) {
+            return initialSize;
+        }
+        return chunkSize(stepContext.getStepExecution().getExecutionContext());
+    }
+
+    private int chunkSize(ExecutionContext executionContext) {
+        return clamp(executionContext.getInt(CHUNK_SIZE_KEY, initialSize));
+    }
+
+    private void adjust(StepExecution stepExecution, int size, int resized, String reason) {
+        int next = clamp(resized);
+        if (next == size) {
+            return;
+        }
+
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        String adjustment = size + " -> " + next + " (" + reason + ")";
+        executionContext.putInt(CHUNK_SIZE_KEY, next);
+        executionContext.putInt(ADJUSTMENT_COUNT_KEY, executionContext.getInt(ADJUSTMENT_COUNT_KEY, 0) + 1);
+        executionContext.putString(LAST_ADJUSTMENT_KEY, adjustment);
+
+        log.info("[AdaptiveChunkSizePolicy] {} chunk size {}", stepExecution.getStepName(), adjustment);
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    private static class ChunkSizeContext extends RepeatContextSupport {
+
+        private final int chunkSize;
+
+        ChunkSizeContext(RepeatContext parent, int chunkSize) {
+            super(parent);
+            this.chunkSize = chunkSize;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package shop.yesaladin.batch.common.chunk;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 설정된 최소, 최대 chunk 크기와 목표 chunk 트랜잭션 시간으로 AdaptiveChunkSizePolicy 를 생성하는 클래스입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Component
+public class AdaptiveChunkSizePolicyFactory {
+
+    private final int minSize;
+    private final int maxSize;
+    private final long targetMillis;
+
+    public AdaptiveChunkSizePolicyFactory(
+            @Value("${yesaladin.batch.chunk.min-size:20}") int minSize,
+            @Value("${yesaladin.batch.chunk.max-size:2000}") int maxSize,
+            @Value("${yesaladin.batch.chunk.target-commit-millis:500}") long targetMillis
+    ) {
+        this.minSize = minSize;
+        this.maxSize = maxSize;
+        this.targetMillis = targetMillis;
+    }
+
+    /**
+     * Step 마다 사용할 AdaptiveChunkSizePolicy 를 생성합니다. Step 의 ChunkListener 와 RetryListener 로도 등록해야
+     * chunk 크기가 조절됩니다.
+     *
+     * @param initialSize 처음 실행할 때의 chunk 크기
+     * @return chunk 크기를 조절하는 CompletionPolicy
+     */
+    public AdaptiveChunkSizePolicy create(int initialSize) {
+        return new AdaptiveChunkSizePolicy(initialSize, minSize, maxSize, targetMillis);
+    }
+}
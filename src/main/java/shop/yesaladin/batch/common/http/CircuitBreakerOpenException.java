@@ -0,0 +1,16 @@
+package shop.yesaladin.batch.common.http;
+
+import org.springframework.web.client.ResourceAccessException;
+
+/**
+ * 호스트의 circuit breaker 가 열려 있어 요청을 보내지 않고 실패한 경우 발생하는 예외입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public class CircuitBreakerOpenException extends ResourceAccessException {
+
+    public CircuitBreakerOpenException(String host) {
+        super("Circuit breaker is open for " + host);
+    }
+}
@@ -0,0 +1,61 @@
+package shop.yesaladin.batch.common.http;
+
+/**
+ * 한 호스트에 대한 circuit breaker 입니다.
+ * <p>
+ * 연속으로 failureThreshold 번 실패하면 열리고, openMillis 가 지나면 한 번의 시험 요청만 허용합니다. 시험 요청이 성공하면 닫히고 실패하면
+ * 다시 열립니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class HostCircuitBreaker {
+
+    private final int failureThreshold;
+    private final long openMillis;
+    private int consecutiveFailures;
+    private long openedAt = -1;
+    private boolean trialInFlight;
+
+    HostCircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    /**
+     * 요청을 보낼 수 있는지 확인합니다. 열린 후 openMillis 가 지난 경우 한 번의 시험 요청을 허용합니다.
+     *
+     * @return 요청을 보낼 수 있는 경우 true
+     */
+    synchronized boolean tryAcquire() {
+        if (openedAt < 0) {
+            return true;
+        }
+        if (!trialInFlight && System.currentTimeMillis() - openedAt >= openMillis) {
+            trialInFlight = true;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        openedAt = -1;
+        trialInFlight = false;
+    }
+
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        if (trialInFlight || consecutiveFailures >= failureThreshold) {
+            openedAt = System.currentTimeMillis();
+        }
+        trialInFlight = false;
+    }
+
+    /**
+     * 요청이 성공이나 실패로 끝나지 않고 예외로 중단된 경우 결과를 기록하지 않고 시험 요청을 반납하여, 다음 요청이 시험 요청이 될 수 있게 합니다.
+     */
+    synchronized void release() {
+        trialInFlight = false;
+    }
+}
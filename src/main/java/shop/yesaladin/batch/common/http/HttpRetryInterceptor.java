@@ -0,0 +1,222 @@
+package shop.yesaladin.batch.common.http;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.config.ServerMetaConfig;
+
+/**
+ * 모든 RestTemplate 요청이 공유하는 재시도 인터셉터입니다.
+ * <p>
+ * 재시도는 지수적으로 늘어나는 대기 시간에 무작위 값을 더해 서버에 동시에 몰리지 않게 하고, 응답에 Retry-After 가 있으면 그 시간만큼
+ * 기다립니다. 멱등한 메서드는 I/O 오류와 429, 502, 503, 504 응답에서 재시도하고, POST 와 PATCH 는 요청이 서버에 전달되지 않은 연결 오류와
+ * 처리하지 않았음이 분명한 429, 503 응답에서만 재시도합니다. 호스트마다 circuit breaker 를 두어 열려 있는 동안은 요청을 보내지 않고 즉시
+ * 실패하며, 재시도 수는 재시도 예산으로 전체 호출 수의 일정 비율로 제한합니다.
+ * <p>
+ * Dooray hook 의 429 응답은 재시도하지 않고 그대로 반환합니다. DoorayNotificationDispatcher 가 429 를 받아 모든 전송 스레드가 공유하는
+ * 토큰 버킷을 멈춰야 하므로, 인터셉터가 스레드마다 따로 기다리면 안 됩니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class HttpRetryInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final Set<HttpMethod> IDEMPOTENT_METHODS = EnumSet.of(
+            HttpMethod.GET,
+            HttpMethod.HEAD,
+            HttpMethod.OPTIONS,
+            HttpMethod.PUT,
+            HttpMethod.DELETE
+    );
+    private static final Set<Integer> IDEMPOTENT_RETRYABLE_STATUSES = Set.of(429, 502, 503, 504);
+    private static final Set<Integer> RETRYABLE_STATUSES = Set.of(429, 503);
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final int failureThreshold;
+    private final long openMillis;
+    private final RetryBudget retryBudget;
+    private final String doorayHost;
+    private final Map<String, HostCircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    public HttpRetryInterceptor(
+            @Value("${yesaladin.batch.http.retry.max-attempts:3}") int maxAttempts,
+            @Value("${yesaladin.batch.http.retry.initial-backoff-millis:200}") long initialBackoffMillis,
+            @Value("${yesaladin.batch.http.retry.max-backoff-millis:5000}") long maxBackoffMillis,
+            @Value("${yesaladin.batch.http.retry.budget-ratio:0.2}") double budgetRatio,
+            @Value("${yesaladin.batch.http.retry.budget-min-retries:10}") int budgetMinRetries,
+            @Value("${yesaladin.batch.http.retry.budget-window-seconds:10}") long budgetWindowSeconds,
+            @Value("${yesaladin.batch.http.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${yesaladin.batch.http.circuit-breaker.open-seconds:30}") long openSeconds,
+            ServerMetaConfig serverMetaConfig
+    ) {
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openSeconds * 1000;
+        this.retryBudget = new RetryBudget(budgetRatio, budgetMinRetries, budgetWindowSeconds * 1000);
+        this.doorayHost = hostOf(URI.create(serverMetaConfig.getDoorayHookUrl()));
+    }
+
+    /**
+     * 요청을 실행하고 재시도할 수 있는 실패인 경우 대기 후 다시 실행합니다. 재시도 횟수나 예산을 모두 사용한 경우 마지막 응답을 반환하거나 마지막
+     * 예외를 던집니다.
+     *
+     * @param request   요청
+     * @param body      요청 본문
+     * @param execution 요청 실행
+     * @return 마지막 응답
+     * @throws IOException 재시도할 수 없는 I/O 오류
+     */
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        String host = hostOf(request.getURI());
+        HostCircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(
+                host,
+                key -> new HostCircuitBreaker(failureThreshold, openMillis)
+        );
+        boolean idempotent = IDEMPOTENT_METHODS.contains(request.getMethod());
+        retryBudget.recordCall();
+
+        for (int attempt = 1; ; attempt++) {
+            if (!circuitBreaker.tryAcquire()) {
+                throw new CircuitBreakerOpenException(host);
+            }
+
+            ClientHttpResponse response;
+            try {
+                response = execute(request, body, execution, circuitBreaker);
+            } catch (IOException e) {
+                if (!isRetryable(e, idempotent) || !canRetry(attempt)) {
+                    throw e;
+                }
+                log.warn("[HttpRetryInterceptor] {} {} failed, attempt {}", request.getMethod(), request.getURI(),
+                        attempt, e);
+                sleep(backoffMillis(attempt));
+                continue;
+            }
+
+            int status = response.getRawStatusCode();
+            Set<Integer> retryableStatuses = idempotent ? IDEMPOTENT_RETRYABLE_STATUSES : RETRYABLE_STATUSES;
+            if (!retryableStatuses.contains(status)
+                    || (status == TOO_MANY_REQUESTS && doorayHost.equals(host))
+                    || !canRetry(attempt)) {
+                return response;
+            }
+
+            long delay = retryAfterMillis(response.getHeaders()).orElse(backoffMillis(attempt));
+            response.close();
+            log.warn("[HttpRetryInterceptor] {} {} returned {}, attempt {}", request.getMethod(), request.getURI(),
+                    status, attempt);
+            sleep(delay);
+        }
+    }
+
+    /**
+     * 요청을 한 번 실행하고 결과를 circuit breaker 에 기록합니다. I/O 오류나 5xx 응답은 실패로, 그 외의 응답은 성공으로 기록하며, 그 밖의
+     * 예외로 중단된 경우에는 결과를 기록하지 않고 시험 요청만 반납합니다.
+     */
+    private ClientHttpResponse execute(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution,
+            HostCircuitBreaker circuitBreaker
+    ) throws IOException {
+        boolean recorded = false;
+        try {
+            ClientHttpResponse response;
+            try {
+                response = execution.execute(request, body);
+            } catch (IOException e) {
+                circuitBreaker.onFailure();
+                recorded = true;
+                throw e;
+            }
+
+            if (response.getRawStatusCode() >= 500) {
+                circuitBreaker.onFailure();
+            } else {
+                circuitBreaker.onSuccess();
+            }
+            recorded = true;
+            return response;
+        } finally {
+            if (!recorded) {
+                circuitBreaker.release();
+            }
+        }
+    }
+
+    private String hostOf(URI uri) {
+        return uri.getHost() + ":" + uri.getPort();
+    }
+
+    private boolean isRetryable(IOException e, boolean idempotent) {
+        return idempotent
+                || e instanceof ConnectException
+                || e instanceof ConnectTimeoutException
+                || e instanceof ConnectionPoolTimeoutException;
+    }
+
+    private boolean canRetry(int attempt) {
+        return attempt < maxAttempts && retryBudget.tryAcquireRetry();
+    }
+
+    /**
+     * attempt 번째 실패 후 기다릴 시간을 계산합니다. 지수적으로 늘어나는 대기 시간의 절반에 나머지 절반 이내의 무작위 시간을 더합니다.
+     */
+    private long backoffMillis(int attempt) {
+        long exponential = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempt - 1, 20));
+        long half = exponential / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private Optional<Long> retryAfterMillis(HttpHeaders headers) {
+        String retryAfter = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (Objects.isNull(retryAfter)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Math.min(maxBackoffMillis, Long.parseLong(retryAfter.trim()) * 1000));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    private void sleep(long millis) throws InterruptedIOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry");
+        }
+    }
+}
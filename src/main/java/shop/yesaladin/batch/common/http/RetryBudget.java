@@ -0,0 +1,54 @@
+package shop.yesaladin.batch.common.http;
+
+/**
+ * 전체 호출 수에 대한 재시도 수의 비율을 제한하는 재시도 예산입니다.
+ * <p>
+ * windowMillis 동안의 호출 수에 ratio 를 곱한 수에 minRetries 를 더한 만큼만 재시도를 허용하며, window 가 지나면 다시 계산합니다.
+ * 서버가 장애일 때 모든 호출이 재시도되어 부하가 배로 늘어나는 것을 막습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class RetryBudget {
+
+    private final double ratio;
+    private final int minRetries;
+    private final long windowMillis;
+    private long windowStartedAt = System.currentTimeMillis();
+    private long calls;
+    private long retries;
+
+    RetryBudget(double ratio, int minRetries, long windowMillis) {
+        this.ratio = ratio;
+        this.minRetries = minRetries;
+        this.windowMillis = windowMillis;
+    }
+
+    synchronized void recordCall() {
+        rollWindow();
+        calls++;
+    }
+
+    /**
+     * 재시도할 예산이 남아 있으면 재시도 수를 증가시킵니다.
+     *
+     * @return 재시도할 수 있는 경우 true
+     */
+    synchronized boolean tryAcquireRetry() {
+        rollWindow();
+        if (retries >= minRetries + (long) (calls * ratio)) {
+            return false;
+        }
+        retries++;
+        return true;
+    }
+
+    private void rollWindow() {
+        long now = System.currentTimeMillis();
+        if (now - windowStartedAt >= windowMillis) {
+            windowStartedAt = now;
+            calls = 0;
+            retries = 0;
+        }
+    }
+}
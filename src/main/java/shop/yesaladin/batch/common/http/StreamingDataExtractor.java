@@ -0,0 +1,81 @@
+package shop.yesaladin.batch.common.http;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.IOException;
+import java.util.function.Consumer;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.ResponseExtractor;
+
+/**
+ * ResponseDto 형식 응답의 data 배열을 토큰 단위로 읽어 원소마다 consumer 에 전달하는 ResponseExtractor 입니다.
+ * <p>
+ * 응답 전체를 ResponseDto 와 List 로 만들지 않고 원소를 하나씩 역직렬화하므로, 메모리에는 consumer 가 보관하는 원소만 남습니다. 원소마다
+ * 역직렬화 컨텍스트를 새로 만들지 않도록 배열 전체를 하나의 MappingIterator 로 읽습니다. data 가 배열이 아닌 경우와 data 외의 필드는
+ * 건너뜁니다.
+ *
+ * @param <T> data 배열 원소의 타입
+ * @author 서민지
+ * @since 1.0
+ */
+public class StreamingDataExtractor<T> implements ResponseExtractor<Integer> {
+
+    private static final String DATA_FIELD = "data";
+
+    private final ObjectMapper objectMapper;
+    private final ObjectReader elementReader;
+    private final Consumer<? super T> consumer;
+
+    public StreamingDataExtractor(
+            ObjectMapper objectMapper,
+            Class<T> elementType,
+            Consumer<? super T> consumer
+    ) {
+        this.objectMapper = objectMapper;
+        this.elementReader = objectMapper.readerFor(elementType);
+        this.consumer = consumer;
+    }
+
+    /**
+     * 응답 본문의 data 배열 원소를 순서대로 consumer 에 전달합니다.
+     *
+     * @param response 응답
+     * @return consumer 에 전달한 원소의 수
+     * @throws IOException 응답을 읽을 수 없거나 ResponseDto 형식이 아닌 경우
+     */
+    @Override
+    public Integer extractData(ClientHttpResponse response) throws IOException {
+        int count = 0;
+        try (JsonParser parser = objectMapper.getFactory().createParser(response.getBody())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected a response object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.getCurrentName();
+                JsonToken valueToken = parser.nextToken();
+                if (!DATA_FIELD.equals(fieldName) || valueToken != JsonToken.START_ARRAY) {
+                    parser.skipChildren();
+                    continue;
+                }
+
+                if (parser.nextToken() == JsonToken.END_ARRAY) {
+                    continue;
+                }
+                MappingIterator<T> elements = elementReader.readValues(parser);
+                while (elements.hasNextValue()) {
+                    if (parser.currentToken() != JsonToken.START_OBJECT) {
+                        throw new JsonParseException(parser, "Expected an object element in data");
+                    }
+                    consumer.accept(elements.nextValue());
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,88 @@
+package shop.yesaladin.batch.common.notification;
+
+import com.nhn.dooray.client.DoorayHook;
+import com.nhn.dooray.client.DoorayHook.Attachment;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import org.springframework.util.Assert;
+
+/**
+ * 여러 item 의 알림을 attachment 로 묶어 Dooray hook 메시지 하나로 만드는 클래스입니다.
+ * <p>
+ * 메시지 하나에는 최대 maxNotices 개의 알림을 담고, attachment 의 제목과 본문의 UTF-8 크기의 합이 maxMessageBytes 를 넘지 않도록
+ * 나눕니다. 하나의 알림이 maxMessageBytes 보다 큰 경우 그 알림만 담은 메시지를 만듭니다. 메시지의 본문에는 title 과 담긴 알림의 수를
+ * 씁니다.
+ *
+ * @param <T> 알림을 보낼 item 의 타입
+ * @author 서민지
+ * @since 1.0
+ */
+public class DoorayMessageCoalescer<T> {
+
+    private final String botName;
+    private final String title;
+    private final int maxNotices;
+    private final int maxMessageBytes;
+    private final Function<? super T, Attachment> attachmentMapper;
+
+    public DoorayMessageCoalescer(
+            String botName,
+            String title,
+            int maxNotices,
+            int maxMessageBytes,
+            Function<? super T, Attachment> attachmentMapper
+    ) {
+        Assert.isTrue(maxNotices > 0, "maxNotices must be positive");
+        Assert.isTrue(maxMessageBytes > 0, "maxMessageBytes must be positive");
+
+        this.botName = botName;
+        this.title = title;
+        this.maxNotices = maxNotices;
+        this.maxMessageBytes = maxMessageBytes;
+        this.attachmentMapper = attachmentMapper;
+    }
+
+    /**
+     * item 목록의 알림을 순서대로 묶어 메시지 목록으로 만듭니다.
+     *
+     * @param items 알림을 보낼 item 목록
+     * @return 알림을 attachment 로 묶은 메시지 목록
+     */
+    public List<DoorayHook> coalesce(List<? extends T> items) {
+        List<DoorayHook> messages = new ArrayList<>();
+        List<Attachment> attachments = new ArrayList<>();
+        int messageBytes = 0;
+
+        for (T item : items) {
+            Attachment attachment = attachmentMapper.apply(item);
+            int attachmentBytes = bytes(attachment.getTitle()) + bytes(attachment.getText());
+            if (!attachments.isEmpty()
+                    && (attachments.size() >= maxNotices || messageBytes + attachmentBytes > maxMessageBytes)) {
+                messages.add(message(attachments));
+                attachments = new ArrayList<>();
+                messageBytes = 0;
+            }
+            attachments.add(attachment);
+            messageBytes += attachmentBytes;
+        }
+        if (!attachments.isEmpty()) {
+            messages.add(message(attachments));
+        }
+        return messages;
+    }
+
+    private DoorayHook message(List<Attachment> attachments) {
+        return DoorayHook.builder()
+                .botName(botName)
+                .text(title + " (" + attachments.size() + "건)")
+                .attachments(attachments)
+                .build();
+    }
+
+    private int bytes(String value) {
+        return Objects.isNull(value) ? 0 : value.getBytes(StandardCharsets.UTF_8).length;
+    }
+}
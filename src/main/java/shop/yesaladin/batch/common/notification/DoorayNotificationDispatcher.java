@@ -0,0 +1,162 @@
+package shop.yesaladin.batch.common.notification;
+
+import com.nhn.dooray.client.DoorayHook;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+import shop.yesaladin.batch.config.ServerMetaConfig;
+
+/**
+ * Dooray hook 메시지를 비동기로 보내는 공유 dispatcher 입니다.
+ * <p>
+ * 메시지는 최대 queueCapacity 개까지 큐에 쌓이고, 큐가 가득 찬 경우 dispatch 는 자리가 날 때까지 기다립니다. 큐의 메시지는 maxInFlight
+ * 개의 스레드가 동시에 보내며, 모든 스레드가 하나의 토큰 버킷을 공유하여 초당 ratePerSecond 개 이하로 보냅니다. Dooray 가 429 로
+ * 응답하면 Retry-After 동안 모든 전송을 멈춘 후 다시 보냅니다. HttpRetryInterceptor 는 Dooray hook 의 429 를 재시도하지 않고 바로
+ * 돌려주므로, 429 재시도는 이 클래스만 합니다. 보내지 못한 메시지는 본문과 attachment 마다의 본문을 로그로 남깁니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class DoorayNotificationDispatcher implements DisposableBean {
+
+    private static final long DEFAULT_RETRY_AFTER_MILLIS = 1000;
+
+    private final RestTemplate restTemplate;
+    private final ServerMetaConfig serverMetaConfig;
+    private final TokenBucket tokenBucket;
+    private final Semaphore queuePermits;
+    private final ThreadPoolTaskExecutor executor;
+    private final int maxRateLimitedAttempts;
+
+    public DoorayNotificationDispatcher(
+            RestTemplate restTemplate,
+            ServerMetaConfig serverMetaConfig,
+            @Value("${yesaladin.batch.dooray.rate-per-second:5}") double ratePerSecond,
+            @Value("${yesaladin.batch.dooray.burst:5}") int burst,
+            @Value("${yesaladin.batch.dooray.queue-capacity:1000}") int queueCapacity,
+            @Value("${yesaladin.batch.dooray.max-in-flight:4}") int maxInFlight,
+            @Value("${yesaladin.batch.dooray.max-rate-limited-attempts:5}") int maxRateLimitedAttempts
+    ) {
+        this.restTemplate = restTemplate;
+        this.serverMetaConfig = serverMetaConfig;
+        this.tokenBucket = new TokenBucket(ratePerSecond, burst);
+        this.queuePermits = new Semaphore(Math.max(queueCapacity, 0) + Math.max(maxInFlight, 1));
+        this.maxRateLimitedAttempts = Math.max(maxRateLimitedAttempts, 1);
+
+        this.executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(Math.max(maxInFlight, 1));
+        executor.setMaxPoolSize(Math.max(maxInFlight, 1));
+        executor.setThreadNamePrefix("DOORAY-NOTIFICATION-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+    }
+
+    /**
+     * 메시지를 큐에 넣습니다. 큐가 가득 찬 경우 자리가 날 때까지 기다립니다.
+     *
+     * @param doorayHook 보낼 메시지
+     * @return 메시지를 보낸 경우 true, 보내지 못한 경우 false 로 완료되는 CompletableFuture
+     */
+    public CompletableFuture<Boolean> dispatch(DoorayHook doorayHook) {
+        try {
+            queuePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logFailure(doorayHook, null);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return send(doorayHook);
+                } finally {
+                    queuePermits.release();
+                }
+            }, executor);
+        } catch (RuntimeException e) {
+            queuePermits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * 토큰을 얻은 후 메시지를 보냅니다. 429 응답을 받은 경우 Retry-After 동안 토큰 버킷을 멈추고 maxRateLimitedAttempts 번까지 다시
+     * 보냅니다.
+     *
+     * @param doorayHook 보낼 메시지
+     * @return 메시지를 보낸 경우 true
+     */
+    private boolean send(DoorayHook doorayHook) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        HttpEntity<DoorayHook> request = new HttpEntity<>(doorayHook, headers);
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                tokenBucket.acquire();
+                restTemplate.exchange(serverMetaConfig.getDoorayHookUrl(), HttpMethod.POST, request, String.class);
+                return true;
+            } catch (HttpClientErrorException.TooManyRequests e) {
+                tokenBucket.pause(retryAfterMillis(e.getResponseHeaders()));
+                if (attempt >= maxRateLimitedAttempts) {
+                    logFailure(doorayHook, e);
+                    return false;
+                }
+            } catch (RestClientException e) {
+                logFailure(doorayHook, e);
+                return false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logFailure(doorayHook, null);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 보내지 못한 메시지를 로그로 남깁니다. attachment 로 묶인 메시지는 attachment 마다 한 줄씩 남겨 알림을 받지 못한 대상을 모두
+     * 기록합니다.
+     */
+    private void logFailure(DoorayHook doorayHook, Exception cause) {
+        if (Objects.isNull(doorayHook.getAttachments()) || doorayHook.getAttachments().isEmpty()) {
+            log.error("Send Failed = " + doorayHook.getText(), cause);
+            return;
+        }
+        doorayHook.getAttachments().forEach(attachment ->
+                log.error("Send Failed = " + attachment.getText()));
+        log.error("Send Failed = " + doorayHook.getText(), cause);
+    }
+
+    private long retryAfterMillis(HttpHeaders headers) {
+        String retryAfter = Objects.isNull(headers) ? null : headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (Objects.isNull(retryAfter)) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+        try {
+            return TimeUnit.SECONDS.toMillis(Long.parseLong(retryAfter.trim()));
+        } catch (NumberFormatException e) {
+            return DEFAULT_RETRY_AFTER_MILLIS;
+        }
+    }
+}
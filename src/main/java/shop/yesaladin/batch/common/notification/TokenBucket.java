@@ -0,0 +1,76 @@
+package shop.yesaladin.batch.common.notification;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 초당 ratePerSecond 개의 토큰을 채우고 최대 burst 개까지 모아 두는 토큰 버킷입니다.
+ * <p>
+ * 서버가 요청을 제한한 경우 pause 로 지정한 시간 동안 모든 스레드의 토큰 획득을 멈춥니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private double tokens;
+    private long refilledAt = System.nanoTime();
+    private long pausedUntil = refilledAt;
+
+    TokenBucket(double ratePerSecond, int burst) {
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = Math.max(burst, 1);
+        this.tokens = capacity;
+    }
+
+    /**
+     * 토큰을 하나 얻을 때까지 기다립니다.
+     *
+     * @throws InterruptedException 기다리는 중 인터럽트된 경우
+     */
+    void acquire() throws InterruptedException {
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                long now = System.nanoTime();
+                refill(now);
+                if (now - pausedUntil < 0) {
+                    waitNanos = pausedUntil - now;
+                } else if (tokens >= 1) {
+                    tokens -= 1;
+                    return;
+                } else {
+                    waitNanos = (long) Math.ceil((1 - tokens) / tokensPerNano);
+                }
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    /**
+     * 지금부터 millis 동안 토큰을 주지 않고, 모아 둔 토큰을 비웁니다.
+     *
+     * @param millis 멈출 시간
+     */
+    synchronized void pause(long millis) {
+        long now = System.nanoTime();
+        refill(now);
+        long until = now + TimeUnit.MILLISECONDS.toNanos(millis);
+        if (until - pausedUntil > 0) {
+            pausedUntil = until;
+        }
+        tokens = 0;
+    }
+
+    /**
+     * 마지막으로 채운 시점 이후 멈추지 않았던 시간만큼 토큰을 채웁니다.
+     */
+    private void refill(long now) {
+        long from = pausedUntil - refilledAt > 0 ? pausedUntil : refilledAt;
+        if (now - from > 0) {
+            tokens = Math.min(capacity, tokens + (now - from) * tokensPerNano);
+        }
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,204 @@
+package shop.yesaladin.batch.common.notification.outbox;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.database.JdbcBatchItemWriter;
+import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 보낼 알림을 기록하는 알림 outbox 테이블(notification_outbox)을 다루는 클래스입니다.
+ * <p>
+ * 알림은 dedupe_key 가 같은 행이 있으면 기록하지 않으므로 같은 알림을 여러 번 기록해도 한 번만 보냅니다. 보내지 못한 알림은 시도 횟수에
+ * 따라 두 배씩 늘어나는 시간 후에 다시 보내며, maxAttempts 번 보내지 못하면 FAILED 상태가 됩니다. Step 의 StepExecutionListener 로
+ * 등록하면 Step 을 시작할 때 테이블이 없는 경우 생성합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class NotificationOutbox implements StepExecutionListener {
+
+    public static final String OUTBOX_TABLE = "notification_outbox";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final int maxAttempts;
+    private final long retryBackoffSeconds;
+    private final long claimLeaseSeconds;
+
+    public NotificationOutbox(
+            DataSource dataSource,
+            @Value("${yesaladin.batch.notification-outbox.max-attempts:5}") int maxAttempts,
+            @Value("${yesaladin.batch.notification-outbox.retry-backoff-seconds:60}") long retryBackoffSeconds,
+            @Value("${yesaladin.batch.notification-outbox.claim-lease-seconds:300}") long claimLeaseSeconds
+    ) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        this.maxAttempts = Math.max(maxAttempts, 1);
+        this.retryBackoffSeconds = retryBackoffSeconds;
+        this.claimLeaseSeconds = claimLeaseSeconds;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + OUTBOX_TABLE + " ("
+                + "id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "dedupe_key VARCHAR(191) NOT NULL, "
+                + "bot_name VARCHAR(50) NOT NULL, "
+                + "title VARCHAR(255) NULL, "
+                + "message TEXT NOT NULL, "
+                + "status VARCHAR(10) NOT NULL, "
+                + "attempt_count INT NOT NULL DEFAULT 0, "
+                + "last_error VARCHAR(" + MAX_ERROR_LENGTH + ") NULL, "
+                + "claim_token CHAR(36) NULL, "
+                + "created_datetime DATETIME NOT NULL, "
+                + "next_attempt_datetime DATETIME NOT NULL, "
+                + "sent_datetime DATETIME NULL, "
+                + "PRIMARY KEY (id), "
+                + "UNIQUE KEY uk_notification_outbox_dedupe_key (dedupe_key), "
+                + "KEY ix_notification_outbox_status (status, next_attempt_datetime, id))");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
+
+    /**
+     * 알림을 PENDING 상태로 기록하는 writer 를 생성합니다. dedupe_key 가 같은 알림이 이미 있으면 기록하지 않습니다. 중복 키 외의 오류는
+     * 경고로 바뀌지 않도록 INSERT IGNORE 대신 ON DUPLICATE KEY UPDATE 를 사용합니다.
+     *
+     * @return 알림을 outbox 에 기록하는 JdbcBatchItemWriter
+     */
+    public JdbcBatchItemWriter<NotificationOutboxDto> insertWriter() {
+        return new JdbcBatchItemWriterBuilder<NotificationOutboxDto>()
+                .dataSource(dataSource)
+                .sql("INSERT INTO " + OUTBOX_TABLE + " (dedupe_key, bot_name, title, message, status, "
+                        + "attempt_count, created_datetime, next_attempt_datetime) "
+                        + "VALUES (:dedupeKey, :botName, :title, :text, '" + NotificationOutboxStatus.PENDING
+                        + "', 0, now(), now()) "
+                        + "ON DUPLICATE KEY UPDATE id = id")
+                .beanMapped()
+                .assertUpdates(false)
+                .build();
+    }
+
+    /**
+     * 보낼 시점이 된 PENDING 알림 중 items 를 선점합니다. 다른 실행이 먼저 선점하였거나 이미 처리된 알림은 제외되며, 선점한 알림은
+     * claimLeaseSeconds 동안 다른 실행이 선점하지 못합니다.
+     *
+     * @param items 읽은 알림 목록
+     * @return 선점한 알림 목록
+     */
+    public List<NotificationOutboxDto> claim(List<? extends NotificationOutboxDto> items) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        String claimToken = UUID.randomUUID().toString();
+        List<Long> ids = items.stream().map(NotificationOutboxDto::getId).collect(Collectors.toList());
+        namedParameterJdbcTemplate.update("UPDATE " + OUTBOX_TABLE + " "
+                        + "SET claim_token = :claimToken, "
+                        + "next_attempt_datetime = now() + INTERVAL :leaseSeconds SECOND "
+                        + "WHERE id IN (:ids) AND status = :status AND next_attempt_datetime <= now()",
+                Map.of(
+                        "claimToken", claimToken,
+                        "leaseSeconds", claimLeaseSeconds,
+                        "ids", ids,
+                        "status", NotificationOutboxStatus.PENDING.name()
+                )
+        );
+
+        Set<Long> claimed = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT id FROM " + OUTBOX_TABLE + " WHERE id IN (:ids) AND claim_token = :claimToken",
+                Map.of("ids", ids, "claimToken", claimToken),
+                Long.class
+        ));
+
+        List<NotificationOutboxDto> claimedItems = new ArrayList<>(claimed.size());
+        items.stream().filter(item -> claimed.contains(item.getId())).forEach(claimedItems::add);
+        if (claimedItems.size() < items.size()) {
+            log.info("[NotificationOutbox] {} notifications were claimed by another execution",
+                    items.size() - claimedItems.size());
+        }
+        return claimedItems;
+    }
+
+    /**
+     * 보낸 알림을 SENT 상태로 변경합니다.
+     *
+     * @param items 보낸 알림 목록
+     */
+    public void markSent(List<NotificationOutboxDto> items) {
+        jdbcTemplate.batchUpdate("UPDATE " + OUTBOX_TABLE + " "
+                        + "SET status = ?, attempt_count = attempt_count + 1, sent_datetime = now(), "
+                        + "last_error = NULL, claim_token = NULL "
+                        + "WHERE id = ?",
+                items.stream()
+                        .map(item -> new Object[]{NotificationOutboxStatus.SENT.name(), item.getId()})
+                        .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * 보내지 못한 알림의 시도 횟수를 늘리고 다시 보낼 시점을 정합니다. 최대 시도 횟수만큼 보내지 못한 알림은 FAILED 상태로 변경합니다.
+     *
+     * @param items 보내지 못한 알림 목록
+     * @param error 보내지 못한 이유
+     */
+    public void markFailed(List<NotificationOutboxDto> items, String error) {
+        String lastError = error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+
+        jdbcTemplate.batchUpdate("UPDATE " + OUTBOX_TABLE + " "
+                        + "SET status = ?, attempt_count = ?, last_error = ?, claim_token = NULL, "
+                        + "next_attempt_datetime = now() + INTERVAL ? SECOND "
+                        + "WHERE id = ?",
+                items.stream()
+                        .map(item -> {
+                            int attempts = item.getAttemptCount() + 1;
+                            NotificationOutboxStatus status = attempts >= maxAttempts
+                                    ? NotificationOutboxStatus.FAILED
+                                    : NotificationOutboxStatus.PENDING;
+                            long backoffSeconds = retryBackoffSeconds << Math.min(attempts - 1, 16);
+                            return new Object[]{status.name(), attempts, lastError, backoffSeconds, item.getId()};
+                        })
+                        .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * notification_outbox 의 행을 NotificationOutboxDto 로 매핑합니다.
+     *
+     * @return 알림 outbox 의 RowMapper
+     */
+    public RowMapper<NotificationOutboxDto> rowMapper() {
+        return (rs, rowNum) -> new NotificationOutboxDto(
+                rs.getLong("id"),
+                rs.getString("dedupe_key"),
+                rs.getString("bot_name"),
+                rs.getString("title"),
+                rs.getString("message"),
+                rs.getInt("attempt_count")
+        );
+    }
+}
@@ -0,0 +1,123 @@
+package shop.yesaladin.batch.common.notification.outbox;
+
+import com.nhn.dooray.client.DoorayHook;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+import shop.yesaladin.batch.common.notification.DoorayMessageCoalescer;
+import shop.yesaladin.batch.common.notification.DoorayNotificationDispatcher;
+
+/**
+ * 알림 outbox 에서 읽은 알림을 선점하여 DoorayNotificationDispatcher 로 보내고 전송 결과를 outbox 에 기록하는 ItemWriter 입니다.
+ * <p>
+ * chunk 의 알림은 dispatcher 가 설정된 전송률과 동시 전송 수로 보내며, 모든 알림의 결과를 받은 후 보낸 알림은 SENT 로, 보내지 못한 알림은
+ * 다시 보낼 PENDING 또는 FAILED 로 기록합니다. coalescer 가 있는 경우 chunk 의 알림을 attachment 로 묶어 보내며, 묶인 알림은 같은 전송
+ * 결과를 갖습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+public class NotificationOutboxDispatchWriter implements ItemWriter<NotificationOutboxDto> {
+
+    private final NotificationOutbox notificationOutbox;
+    private final DoorayNotificationDispatcher dispatcher;
+    private final DoorayMessageCoalescer<NotificationOutboxDto> coalescer;
+
+    /**
+     * 알림을 하나씩 보내는 writer 를 생성합니다.
+     *
+     * @param notificationOutbox 알림 outbox
+     * @param dispatcher         알림을 보낼 dispatcher
+     */
+    public NotificationOutboxDispatchWriter(
+            NotificationOutbox notificationOutbox,
+            DoorayNotificationDispatcher dispatcher
+    ) {
+        this(notificationOutbox, dispatcher, null);
+    }
+
+    /**
+     * chunk 의 알림을 묶어 보내는 writer 를 생성합니다.
+     *
+     * @param notificationOutbox 알림 outbox
+     * @param dispatcher         알림을 보낼 dispatcher
+     * @param coalescer          알림을 attachment 로 묶는 coalescer, 하나씩 보내는 경우 null
+     */
+    public NotificationOutboxDispatchWriter(
+            NotificationOutbox notificationOutbox,
+            DoorayNotificationDispatcher dispatcher,
+            DoorayMessageCoalescer<NotificationOutboxDto> coalescer
+    ) {
+        this.notificationOutbox = notificationOutbox;
+        this.dispatcher = dispatcher;
+        this.coalescer = coalescer;
+    }
+
+    /**
+     * 알림을 선점하여 보내고 결과를 기록합니다.
+     *
+     * @param items outbox 에서 읽은 알림 목록
+     */
+    @Override
+    public void write(List<? extends NotificationOutboxDto> items) {
+        List<NotificationOutboxDto> claimed = notificationOutbox.claim(items);
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        List<DoorayHook> messages = compose(claimed);
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(messages.size());
+        messages.forEach(message -> futures.add(dispatcher.dispatch(message)));
+
+        List<NotificationOutboxDto> sent = new ArrayList<>();
+        List<NotificationOutboxDto> failed = new ArrayList<>();
+        int from = 0;
+        for (int i = 0; i < messages.size(); i++) {
+            int to = from + noticeCount(messages.get(i));
+            List<NotificationOutboxDto> notices = claimed.subList(from, to);
+            if (isSent(futures.get(i))) {
+                sent.addAll(notices);
+            } else {
+                failed.addAll(notices);
+            }
+            from = to;
+        }
+
+        notificationOutbox.markSent(sent);
+        notificationOutbox.markFailed(failed, "Dooray hook send failed");
+        log.info("[NotificationOutboxDispatchWriter] sent = {}, failed = {}", sent.size(), failed.size());
+    }
+
+    private List<DoorayHook> compose(List<NotificationOutboxDto> notices) {
+        if (Objects.nonNull(coalescer)) {
+            return coalescer.coalesce(notices);
+        }
+
+        List<DoorayHook> messages = new ArrayList<>(notices.size());
+        notices.forEach(notice -> messages.add(DoorayHook.builder()
+                .botName(notice.getBotName())
+                .text(notice.getText())
+                .build()));
+        return messages;
+    }
+
+    private int noticeCount(DoorayHook message) {
+        return Objects.isNull(message.getAttachments()) || message.getAttachments().isEmpty()
+                ? 1
+                : message.getAttachments().size();
+    }
+
+    private boolean isSent(CompletableFuture<Boolean> future) {
+        try {
+            return Boolean.TRUE.equals(future.join());
+        } catch (CompletionException e) {
+            log.error("[NotificationOutboxDispatchWriter] dispatch failed", e.getCause());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package shop.yesaladin.batch.common.notification.outbox;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 알림 outbox 의 한 행을 담는 dto 입니다. dedupeKey 가 같은 알림은 한 번만 기록됩니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class NotificationOutboxDto {
+
+    private Long id;
+    private String dedupeKey;
+    private String botName;
+    private String title;
+    private String text;
+    private int attemptCount;
+
+    /**
+     * 새로 기록할 알림을 생성합니다.
+     *
+     * @param dedupeKey 같은 알림을 구분하는 key
+     * @param botName   알림을 보내는 bot 이름
+     * @param title     알림을 묶어 보낼 때 attachment 의 제목
+     * @param text      알림 본문
+     * @return outbox 에 기록할 알림
+     */
+    public static NotificationOutboxDto of(String dedupeKey, String botName, String title, String text) {
+        return new NotificationOutboxDto(null, dedupeKey, botName, title, text, 0);
+    }
+}
@@ -0,0 +1,25 @@
+package shop.yesaladin.batch.common.notification.outbox;
+
+/**
+ * 알림 outbox 에 기록된 알림의 전송 상태입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public enum NotificationOutboxStatus {
+
+    /**
+     * 아직 보내지 않았거나, 보내지 못해 다시 보낼 알림입니다.
+     */
+    PENDING,
+
+    /**
+     * 보낸 알림입니다.
+     */
+    SENT,
+
+    /**
+     * 최대 시도 횟수만큼 보내지 못한 알림입니다. 상태를 PENDING 으로 바꾸면 다시 보냅니다.
+     */
+    FAILED
+}
@@ -0,0 +1,114 @@
+package shop.yesaladin.batch.common.paging;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.database.Order;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * 페이징 reader 의 정렬 키가 행을 유일하게 식별하는지 데이터베이스 메타데이터로 검증하는 클래스입니다.
+ * <p>
+ * JdbcPagingItemReader 는 이전 페이지의 마지막 정렬 키 값 이후부터 다음 페이지를 조회하므로, 정렬 키가 유일하지 않으면 페이지 경계에서 행이
+ * 누락되거나 중복됩니다. 정렬 키 중 기준 테이블 별칭의 컬럼들이 해당 테이블의 기본 키 또는 유니크 인덱스를 모두 포함하는지 확인합니다. 기준
+ * 테이블과 조인되는 테이블은 기준 테이블의 행마다 최대 한 행만 조인되어야 합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class UniqueSortKeyValidator {
+
+    private final DataSource dataSource;
+    private final boolean enabled;
+
+    public UniqueSortKeyValidator(
+            DataSource dataSource,
+            @Value("${yesaladin.batch.paging.verify-unique-sort-keys:true}") boolean enabled
+    ) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 정렬 키 중 tableAlias 의 컬럼들이 tableName 테이블의 유니크 인덱스를 포함하는지 검증합니다.
+     *
+     * @param tableName  정렬 키의 유일성을 보장하는 기준 테이블 이름
+     * @param tableAlias 쿼리에서 기준 테이블에 사용한 별칭
+     * @param sortKeys   검증할 정렬 키, 순서가 유지되어야 합니다
+     * @return 검증을 통과한 정렬 키
+     * @throws IllegalStateException 정렬 키가 유니크 인덱스를 포함하지 않는 경우
+     */
+    public Map<String, Order> validate(
+            String tableName,
+            String tableAlias,
+            Map<String, Order> sortKeys
+    ) {
+        if (!enabled) {
+            return sortKeys;
+        }
+
+        String prefix = tableAlias + ".";
+        Set<String> sortColumns = sortKeys.keySet()
+                .stream()
+                .filter(key -> key.startsWith(prefix))
+                .map(key -> key.substring(prefix.length()).toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+
+        boolean unique = findUniqueIndexes(tableName).values()
+                .stream()
+                .anyMatch(sortColumns::containsAll);
+        if (!unique) {
+            throw new IllegalStateException(
+                    "Sort keys " + sortKeys.keySet() + " do not cover a unique index of table "
+                            + tableName);
+        }
+
+        log.info("[UniqueSortKeyValidator] {} is unique on {}", sortKeys.keySet(), tableName);
+        return sortKeys;
+    }
+
+    private Map<String, Set<String>> findUniqueIndexes(String tableName) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Set<String>> indexes = new HashMap<>();
+
+            try (ResultSet rs = metaData.getIndexInfo(
+                    connection.getCatalog(),
+                    null,
+                    tableName,
+                    true,
+                    true
+            )) {
+                while (rs.next()) {
+                    String indexName = rs.getString("INDEX_NAME");
+                    String columnName = rs.getString("COLUMN_NAME");
+                    if (indexName == null || columnName == null) {
+                        continue;
+                    }
+                    indexes.computeIfAbsent(indexName, name -> new HashSet<>())
+                            .add(columnName.toLowerCase(Locale.ROOT));
+                }
+            }
+
+            return indexes;
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read index metadata of table " + tableName, e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package shop.yesaladin.batch.common.watermark;
+
+import java.util.List;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.stereotype.Component;
+
+/**
+ * 이전 Job 실행의 Step ExecutionContext 에 저장된 워터마크(마지막으로 처리한 위치)를 조회하는 클래스입니다.
+ * <p>
+ * 워터마크는 Step 의 처리 결과와 같은 트랜잭션에서 Step ExecutionContext 에 저장되므로, Job 이 실패하여 Job ExecutionContext 로
+ * 승격되지 못한 경우에도 마지막으로 커밋된 위치를 찾을 수 있습니다. 워터마크는 ISO-8601 날짜처럼 사전순으로 비교할 수 있는 문자열이어야
+ * 합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+@Component
+public class ExecutionContextWatermarkFinder {
+
+    private static final int SEARCH_INSTANCE_COUNT = 10;
+
+    private final JobExplorer jobExplorer;
+
+    /**
+     * 현재 실행 중인 JobExecution 을 제외하고 가장 최근에 저장된 워터마크를 조회합니다.
+     *
+     * @param jobName          워터마크를 저장한 Job 이름
+     * @param stepName         워터마크를 저장한 Step 이름
+     * @param key              ExecutionContext 에 저장된 워터마크의 key
+     * @param currentExecution 현재 실행 중인 JobExecution
+     * @return 가장 최근의 워터마크, 이전 실행 기록이 없는 경우 Optional.empty()
+     */
+    public Optional<String> findLatest(
+            String jobName,
+            String stepName,
+            String key,
+            JobExecution currentExecution
+    ) {
+        List<JobInstance> instances = jobExplorer.getJobInstances(jobName, 0, SEARCH_INSTANCE_COUNT);
+
+        for (JobInstance instance : instances) {
+            Optional<String> watermark = jobExplorer.getJobExecutions(instance)
+                    .stream()
+                    .filter(execution -> !execution.getId().equals(currentExecution.getId()))
+                    .flatMap(execution -> execution.getStepExecutions().stream())
+                    .filter(stepExecution -> stepName.equals(stepExecution.getStepName()))
+                    .map(StepExecution::getExecutionContext)
+                    .filter(context -> context.containsKey(key))
+                    .map(context -> context.getString(key))
+                    .max(String::compareTo);
+
+            if (watermark.isPresent()) {
+                return watermark;
+            }
+        }
+
+        return Optional.empty();
+    }
+}
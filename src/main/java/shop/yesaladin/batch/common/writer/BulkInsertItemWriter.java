@@ -0,0 +1,250 @@
+package shop.yesaladin.batch.common.writer;
+
+import com.mysql.cj.jdbc.JdbcStatement;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.jdbc.JdbcUpdateAffectedIncorrectNumberOfRowsException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * chunk 의 item 을 한 행씩 INSERT 하지 않고 여러 행을 한 번에 삽입하는 ItemWriter 입니다.
+ * <p>
+ * rowMapper 는 item 을 테이블 컬럼 순서의 값 배열로 변환합니다. columnNames 를 지정하지 않으면 값 배열은 테이블의 모든 컬럼과 같은 순서여야
+ * 하며, auto increment 컬럼은 null 로 채웁니다. 값이 {@link #CURRENT_DATETIME} 인 컬럼은 데이터베이스의 now() 로 저장됩니다.
+ * 삽입된 행의 수가 item 의 수와 다르면 예외를 던져 chunk 트랜잭션을 롤백합니다.
+ *
+ * @param <T> 삽입할 item 의 타입
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+public class BulkInsertItemWriter<T> implements ItemWriter<T> {
+
+    /**
+     * 데이터베이스의 now() 로 저장할 컬럼의 값입니다.
+     */
+    public static final Object CURRENT_DATETIME = new Object();
+
+    private static final int MAX_PLACEHOLDERS = 65_535;
+    private static final String NULL_FIELD = "\\N";
+    private static final DateTimeFormatter DATETIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String tableName;
+    private final Function<T, Object[]> rowMapper;
+    private final BulkInsertMode mode;
+    private final int rowCap;
+    private volatile List<String> columnNames;
+
+    public BulkInsertItemWriter(
+            JdbcTemplate jdbcTemplate,
+            String tableName,
+            List<String> columnNames,
+            Function<T, Object[]> rowMapper,
+            BulkInsertMode mode,
+            int rowCap
+    ) {
+        Assert.hasText(tableName, "tableName must not be empty");
+        Assert.isTrue(rowCap > 0, "rowCap must be positive");
+
+        this.jdbcTemplate = jdbcTemplate;
+        this.tableName = tableName;
+        this.columnNames = columnNames;
+        this.rowMapper = rowMapper;
+        this.mode = mode;
+        this.rowCap = rowCap;
+    }
+
+    /**
+     * chunk 의 item 을 mode 에 따라 여러 행 INSERT 문 또는 LOAD DATA LOCAL INFILE 로 삽입합니다.
+     *
+     * @param items 삽입할 item 목록
+     */
+    @Override
+    public void write(List<? extends T> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = items.stream()
+                .map(rowMapper)
+                .collect(Collectors.toList());
+
+        if (mode == BulkInsertMode.LOAD_DATA) {
+            loadData(rows);
+        } else {
+            insertMultiRow(rows);
+        }
+    }
+
+    private void insertMultiRow(List<Object[]> rows) {
+        int width = rows.get(0).length;
+        int groupSize = Math.max(1, Math.min(rowCap, MAX_PLACEHOLDERS / width));
+
+        for (int from = 0; from < rows.size(); from += groupSize) {
+            List<Object[]> group = rows.subList(from, Math.min(from + groupSize, rows.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName);
+            if (Objects.nonNull(columnNames)) {
+                sql.append(" (").append(String.join(", ", columnNames)).append(")");
+            }
+            sql.append(" VALUES ");
+
+            List<Object> args = new ArrayList<>(group.size() * width);
+            for (int i = 0; i < group.size(); i++) {
+                sql.append(i == 0 ? "(" : ", (");
+                Object[] row = group.get(i);
+                for (int j = 0; j < row.length; j++) {
+                    if (j > 0) {
+                        sql.append(", ");
+                    }
+                    if (row[j] == CURRENT_DATETIME) {
+                        sql.append("now()");
+                    } else {
+                        sql.append('?');
+                        args.add(row[j]);
+                    }
+                }
+                sql.append(')');
+            }
+
+            int inserted = jdbcTemplate.update(sql.toString(), args.toArray());
+            verifyInserted(sql.toString(), group.size(), inserted);
+        }
+    }
+
+    private void loadData(List<Object[]> rows) {
+        String sql = loadDataSql(rows.get(0));
+        byte[] csv = toCsv(rows);
+
+        Integer loaded = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.unwrap(JdbcStatement.class)
+                        .setLocalInfileInputStream(new ByteArrayInputStream(csv));
+                return statement.executeUpdate(sql);
+            }
+        });
+
+        verifyInserted(sql, rows.size(), Objects.requireNonNull(loaded));
+    }
+
+    /**
+     * LOAD DATA LOCAL INFILE 문을 작성합니다. now() 로 저장할 컬럼은 사용자 변수로 읽은 후 SET 절에서 값을 지정합니다. LOCAL 로
+     * 읽은 행은 중복 키 오류가 무시되므로 삽입된 행의 수를 검증합니다.
+     */
+    private String loadDataSql(Object[] sampleRow) {
+        StringBuilder sql = new StringBuilder("LOAD DATA LOCAL INFILE '")
+                .append(tableName).append(".csv' INTO TABLE ").append(tableName)
+                .append(" CHARACTER SET utf8mb4")
+                .append(" FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"' ESCAPED BY '\\\\'")
+                .append(" LINES TERMINATED BY '\\n'");
+
+        boolean hasCurrentDatetime = false;
+        for (Object value : sampleRow) {
+            hasCurrentDatetime |= value == CURRENT_DATETIME;
+        }
+        if (Objects.isNull(columnNames) && !hasCurrentDatetime) {
+            return sql.toString();
+        }
+
+        List<String> columns = resolveColumnNames();
+        List<String> fields = new ArrayList<>(columns.size());
+        List<String> assignments = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            if (sampleRow[i] == CURRENT_DATETIME) {
+                fields.add("@ignored" + i);
+                assignments.add(columns.get(i) + " = now()");
+            } else {
+                fields.add(columns.get(i));
+            }
+        }
+
+        sql.append(" (").append(String.join(", ", fields)).append(")");
+        if (!assignments.isEmpty()) {
+            sql.append(" SET ").append(String.join(", ", assignments));
+        }
+        return sql.toString();
+    }
+
+    private List<String> resolveColumnNames() {
+        if (Objects.isNull(columnNames)) {
+            columnNames = jdbcTemplate.execute((ConnectionCallback<List<String>>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                List<String> columns = new ArrayList<>();
+                try (ResultSet rs = metaData.getColumns(
+                        connection.getCatalog(),
+                        null,
+                        tableName,
+                        null
+                )) {
+                    while (rs.next()) {
+                        columns.add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+                return columns;
+            });
+            log.info("[BulkInsertItemWriter] {} columns = {}", tableName, columnNames);
+        }
+        return columnNames;
+    }
+
+    private byte[] toCsv(List<Object[]> rows) {
+        StringBuilder csv = new StringBuilder();
+        for (Object[] row : rows) {
+            for (int i = 0; i < row.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                csv.append(toCsvField(row[i]));
+            }
+            csv.append('\n');
+        }
+        return csv.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private String toCsvField(Object value) {
+        if (Objects.isNull(value) || value == CURRENT_DATETIME) {
+            return NULL_FIELD;
+        }
+        if (value instanceof Number) {
+            return value.toString();
+        }
+        if (value instanceof Boolean) {
+            return Boolean.TRUE.equals(value) ? "1" : "0";
+        }
+        if (value instanceof LocalDateTime) {
+            return DATETIME_FORMATTER.format((LocalDateTime) value);
+        }
+        if (value instanceof LocalDate) {
+            return value.toString();
+        }
+
+        String escaped = value.toString()
+                .replace("\\", "\\\\")
+                .replace("\"", "\\\"")
+                .replace("\n", "\\n")
+                .replace("\r", "\\r");
+        return "\"" + escaped + "\"";
+    }
+
+    private void verifyInserted(String sql, int expected, int actual) {
+        if (expected != actual) {
+            throw new JdbcUpdateAffectedIncorrectNumberOfRowsException(sql, expected, actual);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package shop.yesaladin.batch.common.writer;
+
+import java.util.List;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * 설정된 삽입 방식과 행 수 제한으로 BulkInsertItemWriter 를 생성하는 클래스입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Component
+public class BulkInsertItemWriterFactory {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BulkInsertMode mode;
+    private final int rowCap;
+
+    public BulkInsertItemWriterFactory(
+            DataSource dataSource,
+            @Value("${yesaladin.batch.bulk-insert.mode:MULTI_ROW}") BulkInsertMode mode,
+            @Value("${yesaladin.batch.bulk-insert.row-cap:500}") int rowCap
+    ) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.mode = mode;
+        this.rowCap = rowCap;
+    }
+
+    /**
+     * 테이블의 모든 컬럼에 순서대로 값을 삽입하는 writer 를 생성합니다.
+     *
+     * @param tableName 삽입할 테이블 이름
+     * @param rowMapper item 을 테이블 컬럼 순서의 값 배열로 변환하는 함수
+     * @param <T>       삽입할 item 의 타입
+     * @return 설정된 방식으로 삽입하는 BulkInsertItemWriter
+     */
+    public <T> BulkInsertItemWriter<T> create(String tableName, Function<T, Object[]> rowMapper) {
+        return new BulkInsertItemWriter<>(jdbcTemplate, tableName, null, rowMapper, mode, rowCap);
+    }
+
+    /**
+     * 지정한 컬럼에 순서대로 값을 삽입하는 writer 를 생성합니다.
+     *
+     * @param tableName   삽입할 테이블 이름
+     * @param columnNames 값을 삽입할 컬럼 이름 목록
+     * @param rowMapper   item 을 columnNames 순서의 값 배열로 변환하는 함수
+     * @param <T>         삽입할 item 의 타입
+     * @return 설정된 방식으로 삽입하는 BulkInsertItemWriter
+     */
+    public <T> BulkInsertItemWriter<T> create(
+            String tableName,
+            List<String> columnNames,
+            Function<T, Object[]> rowMapper
+    ) {
+        return new BulkInsertItemWriter<>(
+                jdbcTemplate,
+                tableName,
+                List.copyOf(columnNames),
+                rowMapper,
+                mode,
+                rowCap
+        );
+    }
+}
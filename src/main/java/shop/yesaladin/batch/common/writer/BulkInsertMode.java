@@ -0,0 +1,21 @@
+package shop.yesaladin.batch.common.writer;
+
+/**
+ * BulkInsertItemWriter 가 chunk 를 데이터베이스에 삽입하는 방식입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public enum BulkInsertMode {
+
+    /**
+     * 여러 행을 하나의 INSERT ... VALUES (...), (...) 문으로 삽입합니다.
+     */
+    MULTI_ROW,
+
+    /**
+     * chunk 를 메모리에서 CSV 로 변환하여 LOAD DATA LOCAL INFILE 로 삽입합니다. 데이터베이스 URL 에
+     * allowLoadLocalInfile=true 가 설정되어 있어야 합니다.
+     */
+    LOAD_DATA
+}
@@ -1,15 +1,33 @@
 package shop.yesaladin.batch.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpHost;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.client.ClientHttpRequestInterceptor;
-import org.springframework.retry.policy.SimpleRetryPolicy;
-import org.springframework.retry.support.RetryTemplate;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponents;
+import org.springframework.web.util.UriComponentsBuilder;
+import shop.yesaladin.batch.common.http.HttpRetryInterceptor;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
 
 /**
  * RestTemplate 설정 클래스입니다.
@@ -21,32 +39,173 @@ import java.time.Duration;
 @Configuration
 class RestTemplateConfig {
 
+    private static final String POOL_METRIC_PREFIX = "yesaladin.http.pool.";
+
+    @Value("${yesaladin.batch.http.max-total:100}")
+    private int maxTotal;
+
+    @Value("${yesaladin.batch.http.default-max-per-route:10}")
+    private int defaultMaxPerRoute;
+
+    @Value("${yesaladin.batch.http.max-per-route.shop:20}")
+    private int shopMaxPerRoute;
+
+    @Value("${yesaladin.batch.http.max-per-route.coupon:20}")
+    private int couponMaxPerRoute;
+
+    @Value("${yesaladin.batch.http.max-per-route.dooray:5}")
+    private int doorayMaxPerRoute;
+
+    @Value("${yesaladin.batch.http.keep-alive-seconds:30}")
+    private long keepAliveSeconds;
+
+    @Value("${yesaladin.batch.http.idle-timeout-seconds:30}")
+    private long idleTimeoutSeconds;
+
+    @Value("${yesaladin.batch.http.connection-request-timeout-millis:3000}")
+    private int connectionRequestTimeoutMillis;
+
     /**
-     * connectionTimeout, readTimeout 이 각각 5초, 통신 실패 시 3번 재시도하는 RestTemplate 입니다.
+     * connectionTimeout, readTimeout 이 각각 10초이고, 통신 실패 시 공유 재시도 인터셉터로 재시도하는 RestTemplate 입니다. 연결은
+     * 풀링된 HttpClient 로 재사용합니다.
      *
-     * @return 타임아웃 설정과 RetryTemplate 을 적용한 RestTemplate
+     * @param httpClient           연결 풀을 사용하는 HttpClient
+     * @param httpRetryInterceptor 백오프, circuit breaker, 재시도 예산을 적용한 재시도 인터셉터
+     * @return 타임아웃 설정과 재시도 인터셉터를 적용한 RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplateBuilder().setConnectTimeout(Duration.ofSeconds(10))
+    @Primary
+    public RestTemplate restTemplate(
+            CloseableHttpClient httpClient,
+            HttpRetryInterceptor httpRetryInterceptor
+    ) {
+        return new RestTemplateBuilder().requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory requestFactory =
+                            new HttpComponentsClientHttpRequestFactory(httpClient);
+                    requestFactory.setConnectionRequestTimeout(connectionRequestTimeoutMillis);
+                    return requestFactory;
+                })
+                .setConnectTimeout(Duration.ofSeconds(10))
                 .setReadTimeout(Duration.ofSeconds(10))
-                .additionalInterceptors(clientHttpRequestInterceptor())
+                .additionalInterceptors(httpRetryInterceptor)
                 .setBufferRequestBody(false)
                 .build();
     }
 
     /**
-     * RestTemplate 의 요청이 실패했을 경우 재시도를 실행하도록 설정합니다.
+     * 요청 본문을 메모리에 모으지 않고 바로 연결에 쓰는 RestTemplate 입니다. 인터셉터가 있으면 요청 본문 전체가 버퍼링되므로 재시도
+     * 인터셉터를 적용하지 않으며, 실패한 요청은 chunk 의 재시도로 다시 보냅니다. 연결 풀과 타임아웃은 restTemplate 과 같습니다.
+     *
+     * @param httpClient 연결 풀을 사용하는 HttpClient
+     * @return 요청 본문을 스트리밍하는 RestTemplate
+     */
+    @Bean
+    public RestTemplate streamingRestTemplate(CloseableHttpClient httpClient) {
+        return new RestTemplateBuilder().requestFactory(() -> {
+                    HttpComponentsClientHttpRequestFactory requestFactory =
+                            new HttpComponentsClientHttpRequestFactory(httpClient);
+                    requestFactory.setConnectionRequestTimeout(connectionRequestTimeoutMillis);
+                    return requestFactory;
+                })
+                .setConnectTimeout(Duration.ofSeconds(10))
+                .setReadTimeout(Duration.ofSeconds(10))
+                .setBufferRequestBody(false)
+                .build();
+    }
+
+    /**
+     * Shop, Coupon 서버와 Dooray hook 의 route 별 연결 수를 제한하는 연결 풀입니다.
+     *
+     * @param serverMetaConfig 연결할 서버의 정보
+     * @return route 별 최대 연결 수가 설정된 연결 풀
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager httpClientConnectionManager(ServerMetaConfig serverMetaConfig) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(defaultMaxPerRoute);
+        connectionManager.setValidateAfterInactivity(2_000);
+
+        Map<String, HttpRoute> routes = routes(serverMetaConfig);
+        connectionManager.setMaxPerRoute(routes.get("shop"), shopMaxPerRoute);
+        connectionManager.setMaxPerRoute(routes.get("coupon"), couponMaxPerRoute);
+        connectionManager.setMaxPerRoute(routes.get("dooray"), doorayMaxPerRoute);
+
+        return connectionManager;
+    }
+
+    /**
+     * 연결 풀을 사용하고, 서버가 keep-alive 시간을 알려주지 않으면 keepAliveSeconds 동안 연결을 유지하는 HttpClient 입니다. 사용하지
+     * 않는 연결과 만료된 연결은 백그라운드에서 정리합니다.
+     *
+     * @param connectionManager 연결 풀
+     * @return 연결 풀을 사용하는 HttpClient
+     */
+    @Bean
+    public CloseableHttpClient httpClient(PoolingHttpClientConnectionManager connectionManager) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) -> {
+                    long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE
+                            .getKeepAliveDuration(response, context);
+                    return serverKeepAlive > 0
+                            ? serverKeepAlive
+                            : TimeUnit.SECONDS.toMillis(keepAliveSeconds);
+                })
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(connectionRequestTimeoutMillis)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeoutSeconds, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * 연결 풀의 전체, route 별 사용 중(leased), 대기 중(pending), 사용 가능(available) 연결 수를 메트릭으로 등록합니다.
      *
-     * @return RestTemplate 에 적용할 RetryTemplate 이 적용된 인터셉터
+     * @param connectionManager 연결 풀
+     * @param serverMetaConfig  연결할 서버의 정보
+     * @return 연결 풀 메트릭을 등록하는 MeterBinder
      */
     @Bean
-    public ClientHttpRequestInterceptor clientHttpRequestInterceptor() {
-        return (request, body, execution) -> {
-            RetryTemplate retryTemplate = new RetryTemplate();
-            retryTemplate.setRetryPolicy(new SimpleRetryPolicy(3));
+    public MeterBinder httpClientPoolMetrics(
+            PoolingHttpClientConnectionManager connectionManager,
+            ServerMetaConfig serverMetaConfig
+    ) {
+        return registry -> {
+            Map<String, ToDoubleFunction<PoolStats>> stats = new LinkedHashMap<>();
+            stats.put("leased", PoolStats::getLeased);
+            stats.put("pending", PoolStats::getPending);
+            stats.put("available", PoolStats::getAvailable);
+            stats.put("max", PoolStats::getMax);
 
-            return retryTemplate.execute(context -> execution.execute(request, body));
+            stats.forEach((name, value) -> {
+                Gauge.builder(POOL_METRIC_PREFIX + name, connectionManager,
+                                manager -> value.applyAsDouble(manager.getTotalStats()))
+                        .tags(Tags.of("route", "total"))
+                        .register(registry);
+                routes(serverMetaConfig).forEach((routeName, route) ->
+                        Gauge.builder(POOL_METRIC_PREFIX + name, connectionManager,
+                                        manager -> value.applyAsDouble(manager.getStats(route)))
+                                .tags(Tags.of("route", routeName))
+                                .register(registry));
+            });
         };
     }
-}
\ No newline at end of file
+
+    private Map<String, HttpRoute> routes(ServerMetaConfig serverMetaConfig) {
+        Map<String, HttpRoute> routes = new LinkedHashMap<>();
+        routes.put("shop", route(serverMetaConfig.getShopServerUrl()));
+        routes.put("coupon", route(serverMetaConfig.getCouponServerUrl()));
+        routes.put("dooray", route(serverMetaConfig.getDoorayHookUrl()));
+        return routes;
+    }
+
+    private HttpRoute route(String url) {
+        UriComponents uri = UriComponentsBuilder.fromHttpUrl(url).build();
+        boolean secure = "https".equalsIgnoreCase(uri.getScheme());
+        int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+
+        return new HttpRoute(new HttpHost(uri.getHost(), port, uri.getScheme()), null, secure);
+    }
+}
@@ -5,7 +5,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 /**
- * Shop, Coupon 서버의 정보를 담는 Configuration 입니다.
+ * Shop, Coupon 서버와 Dooray hook 의 정보를 담는 Configuration 입니다.
  *
  * @author 서민지
  * @since 1.0
@@ -19,4 +19,7 @@ public class ServerMetaConfig {
 
     @Value("${yesaladin.coupon.url}")
     private String couponServerUrl;
+
+    @Value("${yesaladin.dooray.hook-url:https://hook.dooray.com/services/3204376758577275363/3472093162960357708/YOuBRWeZSPWxAbv8s5kAZg}")
+    private String doorayHookUrl;
 }
@@ -0,0 +1,277 @@
+package shop.yesaladin.batch.member.allocator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import shop.yesaladin.batch.common.http.StreamingDataExtractor;
+import shop.yesaladin.batch.config.ServerMetaConfig;
+import shop.yesaladin.batch.member.dto.CouponRequestDto;
+import shop.yesaladin.batch.member.dto.CouponResponseDto;
+import shop.yesaladin.batch.member.dto.MemberCouponRequestDto;
+import shop.yesaladin.batch.member.reader.BirthdayMemberPageListener;
+import shop.yesaladin.coupon.trigger.TriggerTypeCode;
+
+/**
+ * Coupon 서버에서 발급받은 생일 쿠폰 코드를 회원마다 겹치지 않게 할당하는 클래스입니다.
+ * <p>
+ * 발급받은 쿠폰 코드 묶음의 순번을 원자적으로 증가시켜 할당하므로 여러 스레드에서 동시에 호출할 수 있습니다. 묶음의 코드를 모두 사용하면 한
+ * 스레드만 다음 묶음으로 넘어갑니다. BirthdayMemberItemReader 가 페이지를 조회할 때마다 그 페이지의 회원 수만큼 쿠폰 코드를 백그라운드에서
+ * 요청하므로, 읽지 않은 회원의 코드는 발급받지 않습니다. prefetchDepth 가 1 이상이고 다음 페이지가 있으면 batchSize 개씩
+ * prefetchDepth 묶음을 더 요청해 두며, 이 경우 마지막 페이지의 회원 수에 따라 사용하지 않는 코드가 생길 수 있습니다. Step 이 끝날 때
+ * 사용하지 않은 쿠폰 코드는 로그와 Step ExecutionContext 에 기록합니다. Step 마다 생성되므로 동시에 실행된 Job 끼리 쿠폰 코드를 공유하지
+ * 않습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@StepScope
+@Component
+public class BirthdayCouponCodeAllocator implements StepExecutionListener, BirthdayMemberPageListener {
+
+    public static final String UNUSED_CODE_COUNT_KEY = "birthdayCoupon.unusedCodeCount";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final ServerMetaConfig serverMetaConfig;
+    private final TaskExecutor prefetchExecutor;
+    private final int batchSize;
+    private final int prefetchDepth;
+    private final Deque<CompletableFuture<CouponCodeBatch>> prefetched = new ArrayDeque<>();
+    private volatile CouponCodeBatch batch;
+    private long demandedCount;
+    private long requestedCount;
+
+    public BirthdayCouponCodeAllocator(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            ServerMetaConfig serverMetaConfig,
+            @Qualifier("birthdayCouponPrefetchExecutor") TaskExecutor prefetchExecutor,
+            @Value("${yesaladin.batch.birthday-coupon.page-size:500}") int batchSize,
+            @Value("${yesaladin.batch.birthday-coupon.prefetch-depth:0}") int prefetchDepth
+    ) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.serverMetaConfig = serverMetaConfig;
+        this.prefetchExecutor = prefetchExecutor;
+        this.batchSize = batchSize;
+        this.prefetchDepth = Math.max(prefetchDepth, 0);
+    }
+
+    /**
+     * 회원에게 각 생일 쿠폰의 같은 순번의 코드를 할당합니다.
+     *
+     * @param memberId 쿠폰을 지급할 회원 id
+     * @return 할당한 쿠폰 코드를 담은 회원 쿠폰 등록 요청 dto
+     */
+    public MemberCouponRequestDto allocate(Long memberId) {
+        while (true) {
+            CouponCodeBatch current = batch;
+            if (Objects.nonNull(current)) {
+                int index = current.cursor.getAndIncrement();
+                if (index < current.size) {
+                    return current.toRequest(memberId, index);
+                }
+            }
+
+            synchronized (this) {
+                if (batch == current) {
+                    batch = nextBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * 조회한 회원 수만큼 쿠폰 코드가 요청되어 있도록 부족한 수량을 요청하고, 다음 페이지가 있으면 prefetchDepth 묶음을 더 요청합니다.
+     *
+     * @param memberCount 이번 페이지에서 새로 읽을 회원 수
+     * @param lastPage    더 조회할 페이지가 없는 경우 true
+     */
+    @Override
+    public synchronized void onPage(int memberCount, boolean lastPage) {
+        demandedCount += memberCount;
+        requestUpTo(demandedCount);
+
+        if (!lastPage && prefetchDepth > 0) {
+            long target = demandedCount + (long) prefetchDepth * batchSize;
+            while (requestedCount < target) {
+                requestUpTo(Math.min(requestedCount + batchSize, target));
+            }
+        }
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        // 쿠폰 코드는 reader 가 회원 페이지를 조회할 때 요청합니다.
+    }
+
+    /**
+     * 현재 묶음에서 할당하지 않은 쿠폰 코드와 미리 요청한 묶음의 쿠폰 코드를 사용하지 않은 코드로 기록합니다. 요청 중인 묶음은 응답을 받은 후
+     * 기록합니다.
+     *
+     * @param stepExecution 종료되는 StepExecution
+     * @return Step 의 ExitStatus 를 변경하지 않으므로 null
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        List<CouponCodeBatch> unusedBatches = new ArrayList<>();
+        synchronized (this) {
+            if (Objects.nonNull(batch)) {
+                unusedBatches.add(batch);
+            }
+            CompletableFuture<CouponCodeBatch> future;
+            while (Objects.nonNull(future = prefetched.poll())) {
+                try {
+                    unusedBatches.add(future.join());
+                } catch (CompletionException e) {
+                    log.warn("[BirthdayCouponCodeAllocator] prefetch failed", e.getCause());
+                }
+            }
+            batch = null;
+        }
+
+        int unusedCodeCount = 0;
+        for (CouponCodeBatch unused : unusedBatches) {
+            int from = Math.min(unused.cursor.get(), unused.size);
+            unusedCodeCount += unused.size - from;
+            unused.coupons.forEach(coupon -> {
+                List<String> codes = coupon.getCreatedCouponCodes().subList(from, unused.size);
+                if (!codes.isEmpty()) {
+                    log.warn("[BirthdayCouponCodeAllocator] unused codes of {} = {}",
+                            coupon.getCouponGroupCode(), codes);
+                }
+            });
+        }
+
+        stepExecution.getExecutionContext().putInt(UNUSED_CODE_COUNT_KEY, unusedCodeCount);
+        log.info("[BirthdayCouponCodeAllocator] {} unused codes per coupon", unusedCodeCount);
+        return null;
+    }
+
+    /**
+     * 요청해 둔 다음 묶음을 꺼냅니다. 요청해 둔 묶음이 없으면 아직 요청하지 않은 회원 수만큼, 재처리처럼 모두 요청한 경우에는 한 명분을
+     * 요청합니다. 모니터를 가진 스레드에서만 호출합니다.
+     *
+     * @return 다음에 할당할 쿠폰 코드 묶음
+     */
+    private CouponCodeBatch nextBatch() {
+        if (prefetched.isEmpty()) {
+            requestUpTo(Math.max(demandedCount, requestedCount + 1));
+        }
+        CompletableFuture<CouponCodeBatch> next = prefetched.poll();
+
+        CouponCodeBatch issued;
+        try {
+            issued = next.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        if (issued.size == 0) {
+            throw new IllegalStateException("No birthday coupon code was issued");
+        }
+        return issued;
+    }
+
+    /**
+     * 지금까지 요청한 쿠폰 코드가 count 개가 되도록 부족한 수량을 한 묶음으로 백그라운드에서 요청합니다. 모니터를 가진 스레드에서만 호출합니다.
+     *
+     * @param count 요청되어 있어야 하는 쿠폰 코드의 총 수량
+     */
+    private void requestUpTo(long count) {
+        int quantity = (int) Math.min(count - requestedCount, Integer.MAX_VALUE);
+        if (quantity <= 0) {
+            return;
+        }
+
+        requestedCount += quantity;
+        prefetched.add(CompletableFuture.supplyAsync(
+                () -> new CouponCodeBatch(requestBirthdayCoupon(quantity)),
+                prefetchExecutor
+        ));
+    }
+
+    /**
+     * Coupon 서버에 생일 쿠폰 코드를 요청합니다. 응답은 쿠폰 단위로 읽어 바로 목록에 담습니다.
+     *
+     * @param quantity 요청하는 수량
+     * @return 쿠폰별 생성된 쿠폰 코드
+     */
+    private List<CouponResponseDto> requestBirthdayCoupon(int quantity) {
+        CouponRequestDto couponRequestDto = new CouponRequestDto(
+                TriggerTypeCode.BIRTHDAY,
+                quantity
+        );
+
+        String uriString = UriComponentsBuilder.fromHttpUrl(serverMetaConfig.getCouponServerUrl())
+                .pathSegment("v1", "issuances")
+                .toUriString();
+
+        List<CouponResponseDto> coupons = new ArrayList<>();
+        restTemplate.execute(
+                uriString,
+                HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON));
+                    objectMapper.writeValue(StreamUtils.nonClosing(request.getBody()), couponRequestDto);
+                },
+                new StreamingDataExtractor<>(objectMapper, CouponResponseDto.class, coupons::add)
+        );
+
+        log.info("[BirthdayCouponCodeAllocator] issued {} codes for {} coupons", quantity, coupons.size());
+        return coupons;
+    }
+
+    /**
+     * 한 번에 발급받은 쿠폰 코드 묶음과 다음에 할당할 순번입니다.
+     */
+    private static class CouponCodeBatch {
+
+        private final List<CouponResponseDto> coupons;
+        private final int size;
+        private final AtomicInteger cursor = new AtomicInteger();
+
+        CouponCodeBatch(List<CouponResponseDto> coupons) {
+            this.coupons = coupons;
+            this.size = coupons.stream()
+                    .mapToInt(coupon -> coupon.getCreatedCouponCodes().size())
+                    .min()
+                    .orElse(0);
+        }
+
+        MemberCouponRequestDto toRequest(Long memberId, int index) {
+            MemberCouponRequestDto dto = new MemberCouponRequestDto(memberId);
+            coupons.forEach(coupon -> {
+                dto.getCouponCodes().add(coupon.getCreatedCouponCodes().get(index));
+                dto.getCouponGroupCodes().add(coupon.getCouponGroupCode());
+                dto.getExpirationDates().add(coupon.getExpirationDate());
+            });
+            return dto;
+        }
+    }
+}
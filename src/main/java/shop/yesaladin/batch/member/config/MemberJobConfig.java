@@ -1,14 +1,23 @@
 package shop.yesaladin.batch.member.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ExitStatus;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.JobParametersValidator;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.EnableBatchProcessing;
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.batch.core.job.DefaultJobParametersValidator;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.flow.Flow;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import shop.yesaladin.batch.member.decider.MemberGradeUpdateModeDecider;
+import shop.yesaladin.batch.member.decider.MemberPointIssuanceDecider;
+import shop.yesaladin.batch.member.listener.MemberPayAmountStagingListener;
+import shop.yesaladin.batch.member.model.MemberGradeUpdateMode;
+import shop.yesaladin.batch.member.model.MemberPointIssuanceMode;
+import shop.yesaladin.batch.member.step.MemberMonthlySpendRollupStep;
 
 /**
  * Spring Batch 설정 입니다.
@@ -22,9 +31,16 @@ import org.springframework.context.annotation.Configuration;
 public class MemberJobConfig {
 
     private final JobBuilderFactory jobBuilderFactory;
+    private final Step stageMemberPayAmountStep;
     private final Step updateMemberGradeStep;
+    private final Step partitionUpdateMemberGradeStep;
+    private final Step pushdownUpdateMemberGradeStep;
     private final Step updateMemberPointStep;
     private final Step giveBirthdayCouponStep;
+    private final Step rollupMemberMonthlySpendStep;
+    private final MemberGradeUpdateModeDecider memberGradeUpdateModeDecider;
+    private final MemberPointIssuanceDecider memberPointIssuanceDecider;
+    private final MemberPayAmountStagingListener memberPayAmountStagingListener;
 
     /**
      * updateMemberJob 의 필수 파라미터를 지정하는 validator 입니다.
@@ -39,20 +55,63 @@ public class MemberJobConfig {
     }
 
     /**
-     * 지난달 주문 금액에 따라 회원의 등급을 수정하는 step 과 등급별 포인트를 지급하는 step 을 수행하는 Job 입니다.
+     * 지난달 주문 금액을 스테이징 테이블에 집계하는 step, 주문 금액에 따라 회원의 등급을 수정하는 step 과 등급별 포인트를 지급하는 step 을
+     * 수행하는 Job 입니다. 회원 등급을 수정하는 step 은 gradeUpdateMode 파라미터에 따라 단일 step, 파티션 step 또는 SQL 로 처리하는
+     * step 으로 실행되며, 스테이징 테이블의 Job 인스턴스 집계는 Job 이 끝나면 삭제됩니다. pointIssuanceMode 파라미터가 FUSED 인 경우 포인트는 회원 등급을
+     * 수정하는 step 에서 함께 지급되므로 updateMemberPointStep 을 실행하지 않습니다.
      *
-     * @return updateMemberGradeStep, updateMemberPointStep 을 실행하는 Job
+     * @return stageMemberPayAmountStep, updateMemberGradeStep(또는 partitionUpdateMemberGradeStep,
+     * pushdownUpdateMemberGradeStep), updateMemberPointStep 을 실행하는 Job
      */
     @Bean
     public Job updateMemberJob() {
+        Flow updateMemberFlow = new FlowBuilder<Flow>("updateMemberFlow")
+                .start(stageMemberPayAmountStep)
+                .next(memberGradeUpdateModeDecider)
+                .on(MemberGradeUpdateMode.PARTITION.name())
+                .to(partitionUpdateMemberGradeStep)
+                .on(ExitStatus.COMPLETED.getExitCode())
+                .to(memberPointIssuanceDecider)
+                .from(memberGradeUpdateModeDecider)
+                .on(MemberGradeUpdateMode.PUSHDOWN.name())
+                .to(pushdownUpdateMemberGradeStep)
+                .on(ExitStatus.COMPLETED.getExitCode())
+                .to(memberPointIssuanceDecider)
+                .from(memberGradeUpdateModeDecider)
+                .on(MemberGradeUpdateMode.CHUNK.name())
+                .to(updateMemberGradeStep)
+                .on(ExitStatus.COMPLETED.getExitCode())
+                .to(memberPointIssuanceDecider)
+                .from(memberPointIssuanceDecider)
+                .on(MemberPointIssuanceMode.SEPARATE.name())
+                .to(updateMemberPointStep)
+                .from(memberPointIssuanceDecider)
+                .on(MemberPointIssuanceMode.FUSED.name())
+                .end()
+                .build();
+
         return jobBuilderFactory
                 .get("updateMemberJob")
-                .start(updateMemberGradeStep)
-                .next(updateMemberPointStep)
+                .start(updateMemberFlow)
+                .end()
+                .listener(memberPayAmountStagingListener)
                 .validator(validator())
                 .build();
     }
 
+    /**
+     * 전날의 결제와 결제 취소 금액을 회원별 월간 주문 금액 집계 테이블에 누적하는 Step 을 수행하는 Job 입니다.
+     *
+     * @return rollupMemberMonthlySpendStep 을 실행하는 Job
+     */
+    @Bean
+    public Job rollupMemberMonthlySpendJob() {
+        return jobBuilderFactory
+                .get(MemberMonthlySpendRollupStep.JOB_NAME)
+                .start(rollupMemberMonthlySpendStep)
+                .build();
+    }
+
     /**
      * 생일 회원을 조회하여 쿠폰을 지급하는 Step 을 수행하는 Job 입니다.
      *
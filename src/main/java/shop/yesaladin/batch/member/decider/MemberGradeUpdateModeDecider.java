@@ -0,0 +1,34 @@
+package shop.yesaladin.batch.member.decider;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.member.model.MemberGradeUpdateMode;
+
+/**
+ * updateMemberJob 의 gradeUpdateMode 파라미터에 따라 실행할 회원 등급 갱신 Step 을 결정하는 Decider 입니다.
+ * <p>
+ * 파라미터가 없는 경우 {@link MemberGradeUpdateMode#CHUNK} 로 실행합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class MemberGradeUpdateModeDecider implements JobExecutionDecider {
+
+    public static final String MODE_PARAMETER = "gradeUpdateMode";
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        String mode = jobExecution.getJobParameters()
+                .getString(MODE_PARAMETER, MemberGradeUpdateMode.CHUNK.name());
+        MemberGradeUpdateMode updateMode = MemberGradeUpdateMode.valueOf(mode.toUpperCase());
+
+        log.info("[updateMemberJob] gradeUpdateMode = {}", updateMode);
+        return new FlowExecutionStatus(updateMode.name());
+    }
+}
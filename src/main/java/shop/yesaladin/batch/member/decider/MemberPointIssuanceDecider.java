@@ -0,0 +1,27 @@
+package shop.yesaladin.batch.member.decider;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.member.model.MemberPointIssuanceMode;
+
+/**
+ * updateMemberJob 의 pointIssuanceMode 파라미터에 따라 updateMemberPointStep 을 실행할지 결정하는 Decider 입니다.
+ * <p>
+ * {@link MemberPointIssuanceMode#FUSED} 인 경우 포인트가 회원 등급 갱신 Step 에서 이미 지급되었으므로 Job 을 종료합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Component
+public class MemberPointIssuanceDecider implements JobExecutionDecider {
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        String mode = jobExecution.getJobParameters().getString(MemberPointIssuanceMode.PARAMETER);
+
+        return new FlowExecutionStatus(MemberPointIssuanceMode.from(mode).name());
+    }
+}
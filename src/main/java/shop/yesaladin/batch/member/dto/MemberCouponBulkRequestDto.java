@@ -0,0 +1,73 @@
+package shop.yesaladin.batch.member.dto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+
+/**
+ * Shop 서버에 여러 회원의 쿠폰 지급을 한 번에 요청하기 위한 dto 입니다. 쿠폰 그룹 코드와 만료일은 coupons 에 한 번만 담고, 회원별로는
+ * coupons 와 같은 순서의 쿠폰 코드만 담습니다. 한 chunk 의 요청 본문은 이 dto 의 배열입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Getter
+@AllArgsConstructor
+public class MemberCouponBulkRequestDto {
+
+    private List<CouponGroupDto> coupons;
+    private List<MemberCouponCodesDto> members;
+
+    /**
+     * 회원 쿠폰 등록 요청 dto 목록을 쿠폰 그룹 코드와 만료일이 같은 회원끼리 묶어 변환합니다.
+     *
+     * @param items 회원 쿠폰 등록 요청 dto 목록
+     * @return 쿠폰 그룹 코드와 만료일이 같은 회원끼리 묶은 요청 dto 목록
+     */
+    public static List<MemberCouponBulkRequestDto> of(List<? extends MemberCouponRequestDto> items) {
+        Map<List<CouponGroupDto>, List<MemberCouponCodesDto>> groups = new LinkedHashMap<>();
+        for (MemberCouponRequestDto item : items) {
+            List<CouponGroupDto> coupons = new ArrayList<>(item.getCouponGroupCodes().size());
+            for (int i = 0; i < item.getCouponGroupCodes().size(); i++) {
+                coupons.add(new CouponGroupDto(
+                        item.getCouponGroupCodes().get(i),
+                        item.getExpirationDates().get(i)
+                ));
+            }
+            groups.computeIfAbsent(coupons, key -> new ArrayList<>())
+                    .add(new MemberCouponCodesDto(item.getMemberId(), item.getCouponCodes()));
+        }
+
+        List<MemberCouponBulkRequestDto> requests = new ArrayList<>(groups.size());
+        groups.forEach((coupons, members) -> requests.add(new MemberCouponBulkRequestDto(coupons, members)));
+        return requests;
+    }
+
+    /**
+     * 요청에 포함된 쿠폰의 그룹 코드와 만료일입니다.
+     */
+    @Getter
+    @EqualsAndHashCode
+    @AllArgsConstructor
+    public static class CouponGroupDto {
+
+        private String couponGroupCode;
+        private LocalDate expirationDate;
+    }
+
+    /**
+     * 회원 id 와 coupons 와 같은 순서로 지급할 쿠폰 코드입니다.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class MemberCouponCodesDto {
+
+        private Long memberId;
+        private List<String> couponCodes;
+    }
+}
@@ -1,5 +1,6 @@
 package shop.yesaladin.batch.member.dto;
 
+import java.util.Objects;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -18,8 +19,18 @@ public class MemberGradeDto {
     private Long memberId;
     private Long payAmount;
     private Integer memberGradeId;
+    private Integer currentMemberGradeId;
 
     public void updateMemberGrade(int memberGradeId) {
         this.memberGradeId = memberGradeId;
     }
+
+    /**
+     * 수정된 회원 등급이 데이터베이스에서 읽어온 회원 등급과 다른지 확인합니다.
+     *
+     * @return 회원 등급이 바뀐 경우 true
+     */
+    public boolean isGradeChanged() {
+        return !Objects.equals(this.currentMemberGradeId, this.memberGradeId);
+    }
 }
\ No newline at end of file
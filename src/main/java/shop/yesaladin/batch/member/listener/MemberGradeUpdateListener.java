@@ -2,6 +2,9 @@ package shop.yesaladin.batch.member.listener;
 
 import java.util.List;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.annotation.AfterStep;
 import org.springframework.batch.core.annotation.OnProcessError;
 import org.springframework.batch.core.annotation.OnReadError;
 import org.springframework.batch.core.annotation.OnWriteError;
@@ -48,4 +51,22 @@ public class MemberGradeUpdateListener {
     public void onWriteError(Exception e, List<Object> items) {
         log.error("[MemberGradeUpdateStep] ItemWriter error message", e);
     }
-}
\ No newline at end of file
+
+    /**
+     * Step 이 끝나면 읽은 회원 수, 등급이 바뀌지 않아 걸러진 회원 수, 등급이 수정된 회원 수를 로그로 작성합니다.
+     *
+     * @param stepExecution 종료된 StepExecution
+     * @return 변경하지 않은 Step 의 ExitStatus
+     */
+    @AfterStep
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        log.info("[MemberGradeUpdateStep] {} read = {}, filtered(unchanged) = {}, written = {}, skipped = {}",
+                stepExecution.getStepName(),
+                stepExecution.getReadCount(),
+                stepExecution.getFilterCount(),
+                stepExecution.getWriteCount(),
+                stepExecution.getSkipCount()
+        );
+        return stepExecution.getExitStatus();
+    }
+}
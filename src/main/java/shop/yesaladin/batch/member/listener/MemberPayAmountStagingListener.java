@@ -0,0 +1,57 @@
+package shop.yesaladin.batch.member.listener;
+
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.member.step.MemberPayAmountStagingStep;
+
+/**
+ * updateMemberJob 이 시작할 때 회원별 주문 금액 스테이징 테이블을 생성하고, 끝나면 해당 Job 인스턴스의 집계를 삭제하는 리스너 클래스입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class MemberPayAmountStagingListener implements JobExecutionListener {
+
+    private final DataSource dataSource;
+
+    /**
+     * 스테이징 테이블이 없는 경우 생성합니다. MySQL 에서 DDL 은 암묵적으로 커밋되므로 Step 의 트랜잭션 밖에서 실행합니다. 집계는
+     * stageMemberPayAmountStep 에서 저장합니다.
+     *
+     * @param jobExecution 시작하는 JobExecution
+     */
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        new JdbcTemplate(dataSource).execute("CREATE TABLE IF NOT EXISTS "
+                + MemberPayAmountStagingStep.STAGING_TABLE + " ("
+                + "job_instance_id BIGINT NOT NULL, "
+                + "member_id BIGINT NOT NULL, "
+                + "pay_amount BIGINT NOT NULL, "
+                + "PRIMARY KEY (job_instance_id, member_id))");
+    }
+
+    /**
+     * Job 의 성공 여부와 관계없이 해당 Job 인스턴스의 집계를 삭제합니다. 재시작한 실행은 stageMemberPayAmountStep 에서 다시 집계합니다. 다른
+     * Job 인스턴스의 집계는 삭제하지 않습니다.
+     *
+     * @param jobExecution 종료된 JobExecution
+     */
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        int deleted = new JdbcTemplate(dataSource).update(
+                "DELETE FROM " + MemberPayAmountStagingStep.STAGING_TABLE + " WHERE job_instance_id = ?",
+                jobExecution.getJobId()
+        );
+        log.info("[updateMemberJob] {} rows of job instance {} deleted from {}, status = {}",
+                deleted, jobExecution.getJobId(), MemberPayAmountStagingStep.STAGING_TABLE,
+                jobExecution.getStatus());
+    }
+}
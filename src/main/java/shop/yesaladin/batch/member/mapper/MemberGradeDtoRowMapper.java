@@ -18,8 +18,9 @@ public class MemberGradeDtoRowMapper implements RowMapper<MemberGradeDto> {
     public MemberGradeDto mapRow(ResultSet rs, int rowNum) throws SQLException {
         MemberGradeDto memberGradeDto = new MemberGradeDto();
 
-        memberGradeDto.setMemberId(rs.getLong("member_id"));
+        memberGradeDto.setMemberId(rs.getLong("id"));
         memberGradeDto.setPayAmount(rs.getLong("pay_amount"));
+        memberGradeDto.setCurrentMemberGradeId(rs.getInt("member_grade_id"));
 
         return memberGradeDto;
     }
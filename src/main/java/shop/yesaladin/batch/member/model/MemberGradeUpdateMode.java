@@ -0,0 +1,25 @@
+package shop.yesaladin.batch.member.model;
+
+/**
+ * 회원 등급 갱신 Step 의 실행 방식입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public enum MemberGradeUpdateMode {
+
+    /**
+     * 단일 스레드로 전체 회원을 chunk 단위로 처리합니다.
+     */
+    CHUNK,
+
+    /**
+     * 회원 id 범위별 파티션을 나누어 여러 스레드로 처리합니다.
+     */
+    PARTITION,
+
+    /**
+     * 회원 id 범위별로 등급 계산과 수정을 데이터베이스에서 SQL 로 처리합니다.
+     */
+    PUSHDOWN
+}
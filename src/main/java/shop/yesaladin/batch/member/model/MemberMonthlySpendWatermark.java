@@ -0,0 +1,121 @@
+package shop.yesaladin.batch.member.model;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Optional;
+import javax.sql.DataSource;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.member.step.MemberMonthlySpendRollupStep;
+
+/**
+ * 회원별 월간 주문 금액 집계 테이블(member_monthly_spend)에 마지막으로 누적한 날짜(워터마크)입니다.
+ * <p>
+ * 워터마크는 워터마크 테이블(member_monthly_spend_watermark)에 저장되며, 하루를 누적하는 트랜잭션에서
+ * {@code WHERE last_date = ?} 조건으로 갱신됩니다. 다른 실행이 먼저 같은 날을 누적한 경우 갱신되는 행이 없으므로 누적하지 않고 실패합니다.
+ * 집계 테이블과 워터마크 테이블은 이 클래스를 StepExecutionListener 로 등록한 Step 이 시작할 때 없는 경우 생성합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Component
+public class MemberMonthlySpendWatermark implements StepExecutionListener {
+
+    public static final String WATERMARK_TABLE = "member_monthly_spend_watermark";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberMonthlySpendWatermark(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 집계 테이블과 워터마크 테이블이 없는 경우 생성합니다. MySQL 에서 DDL 은 암묵적으로 커밋되므로 tasklet 의 트랜잭션 밖에서 실행합니다.
+     *
+     * @param stepExecution 시작하는 StepExecution
+     */
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + MemberMonthlySpendRollupStep.ROLLUP_TABLE + " ("
+                + "member_id BIGINT NOT NULL, "
+                + "`year_month` CHAR(7) NOT NULL, "
+                + "amount BIGINT NOT NULL DEFAULT 0, "
+                + "PRIMARY KEY (member_id, `year_month`))");
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + WATERMARK_TABLE + " ("
+                + "table_name VARCHAR(64) NOT NULL, "
+                + "last_date DATE NOT NULL, "
+                + "PRIMARY KEY (table_name))");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
+
+    /**
+     * 마지막으로 누적한 날짜를 조회합니다.
+     *
+     * @return 마지막으로 누적한 날짜, 한 번도 누적하지 않은 경우 empty
+     */
+    public Optional<LocalDate> find() {
+        return jdbcTemplate.queryForList(
+                "SELECT last_date FROM " + WATERMARK_TABLE + " WHERE table_name = ?",
+                String.class,
+                MemberMonthlySpendRollupStep.ROLLUP_TABLE
+        ).stream().findFirst().map(LocalDate::parse);
+    }
+
+    /**
+     * 처음 누적하는 경우 targetDate 가 속한 달의 지난달 1일부터 누적하도록 그 전날을 워터마크로 저장합니다.
+     * <p>
+     * 워터마크가 없는데 집계 테이블에 이미 금액이 있는 경우, 워터마크 테이블이 지워졌거나 다른 방식으로 누적된 것이므로 같은 날을 다시 더하지 않도록
+     * 실패합니다. 이 경우 마지막으로 누적한 날짜를 워터마크 테이블에 직접 저장한 후 다시 실행합니다.
+     *
+     * @param targetDate 누적할 마지막 날짜
+     * @return 저장한 워터마크
+     * @throws IllegalStateException 워터마크 없이 집계 테이블에 금액이 있는 경우
+     */
+    public LocalDate initialize(LocalDate targetDate) {
+        boolean rolledUp = !jdbcTemplate.queryForList(
+                "SELECT member_id FROM " + MemberMonthlySpendRollupStep.ROLLUP_TABLE + " LIMIT 1",
+                Long.class
+        ).isEmpty();
+        if (rolledUp) {
+            throw new IllegalStateException(MemberMonthlySpendRollupStep.ROLLUP_TABLE
+                    + " already has rows, but " + WATERMARK_TABLE + " has no last_date for it. "
+                    + "Insert the last rolled up date into " + WATERMARK_TABLE + " before running "
+                    + MemberMonthlySpendRollupStep.JOB_NAME + " again.");
+        }
+
+        LocalDate watermark = YearMonth.from(targetDate).minusMonths(1).atDay(1).minusDays(1);
+        jdbcTemplate.update(
+                "INSERT INTO " + WATERMARK_TABLE + " (table_name, last_date) VALUES (?, ?)",
+                MemberMonthlySpendRollupStep.ROLLUP_TABLE,
+                watermark.toString()
+        );
+        return watermark;
+    }
+
+    /**
+     * 워터마크를 from 에서 to 로 옮깁니다. 누적한 금액과 같은 트랜잭션에서 호출해야 합니다.
+     *
+     * @param from 현재 트랜잭션이 읽은 워터마크
+     * @param to   새로 누적하는 날짜
+     * @throws IllegalStateException 다른 실행이 워터마크를 먼저 옮긴 경우
+     */
+    public void advance(LocalDate from, LocalDate to) {
+        int updated = jdbcTemplate.update(
+                "UPDATE " + WATERMARK_TABLE + " SET last_date = ? WHERE table_name = ? AND last_date = ?",
+                to.toString(),
+                MemberMonthlySpendRollupStep.ROLLUP_TABLE,
+                from.toString()
+        );
+        if (updated != 1) {
+            throw new IllegalStateException(MemberMonthlySpendRollupStep.ROLLUP_TABLE + " watermark is no longer "
+                    + from + ". Another " + MemberMonthlySpendRollupStep.JOB_NAME + " execution rolled it up.");
+        }
+    }
+}
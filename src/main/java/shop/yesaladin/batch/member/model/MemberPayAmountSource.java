@@ -0,0 +1,37 @@
+package shop.yesaladin.batch.member.model;
+
+import java.util.Objects;
+
+/**
+ * 회원 등급 갱신 시 회원별 순수 주문 금액을 읽어올 테이블입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public enum MemberPayAmountSource {
+
+    /**
+     * Job 실행 시 결제 테이블을 집계하여 만든 스테이징 테이블(member_pay_amount_staging)을 읽습니다.
+     */
+    STAGING,
+
+    /**
+     * 매일 누적되는 회원별 월간 주문 금액 집계 테이블(member_monthly_spend)을 기본키로 읽습니다.
+     */
+    ROLLUP;
+
+    public static final String PARAMETER = "payAmountSource";
+
+    /**
+     * Job 파라미터 값을 MemberPayAmountSource 로 변환합니다. 값이 없는 경우 {@link #STAGING} 을 반환합니다.
+     *
+     * @param value Job 파라미터 값
+     * @return 변환된 MemberPayAmountSource
+     */
+    public static MemberPayAmountSource from(String value) {
+        if (Objects.isNull(value)) {
+            return STAGING;
+        }
+        return valueOf(value.toUpperCase());
+    }
+}
@@ -0,0 +1,37 @@
+package shop.yesaladin.batch.member.model;
+
+import java.util.Objects;
+
+/**
+ * 회원 등급별 포인트를 지급하는 방식입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public enum MemberPointIssuanceMode {
+
+    /**
+     * 회원 등급 갱신 Step 이 끝난 후 updateMemberPointStep 에서 전체 회원을 다시 조회하여 포인트를 지급합니다.
+     */
+    SEPARATE,
+
+    /**
+     * 회원 등급 갱신 Step 의 writer 가 같은 chunk 트랜잭션에서 포인트 내역을 함께 저장합니다.
+     */
+    FUSED;
+
+    public static final String PARAMETER = "pointIssuanceMode";
+
+    /**
+     * Job 파라미터 값을 MemberPointIssuanceMode 로 변환합니다. 값이 없는 경우 {@link #SEPARATE} 를 반환합니다.
+     *
+     * @param value Job 파라미터 값
+     * @return 변환된 MemberPointIssuanceMode
+     */
+    public static MemberPointIssuanceMode from(String value) {
+        if (Objects.isNull(value)) {
+            return SEPARATE;
+        }
+        return valueOf(value.toUpperCase());
+    }
+}
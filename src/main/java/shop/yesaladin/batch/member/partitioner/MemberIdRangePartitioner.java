@@ -0,0 +1,73 @@
+package shop.yesaladin.batch.member.partitioner;
+
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 회원 테이블의 id 를 연속된 범위로 나누어 파티션을 생성하는 Partitioner 입니다.
+ * <p>
+ * 각 파티션의 ExecutionContext 에는 범위의 시작(minId)과 끝(maxId)이 저장되며, 파티션별 진행 상황도 해당 ExecutionContext 에
+ * 저장되므로 실패한 파티션만 재시작됩니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+public class MemberIdRangePartitioner implements Partitioner {
+
+    public static final String MIN_ID_KEY = "minId";
+    public static final String MAX_ID_KEY = "maxId";
+    private static final String PARTITION_KEY = "partition";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MemberIdRangePartitioner(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 회원 id 의 최솟값과 최댓값을 조회하여 gridSize 개의 연속된 id 범위로 나눕니다.
+     *
+     * @param gridSize 생성할 파티션의 수
+     * @return 파티션 이름과 id 범위를 담은 ExecutionContext 의 Map
+     */
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        Map<String, Long> range = jdbcTemplate.queryForObject(
+                "SELECT MIN(id) AS min_id, MAX(id) AS max_id FROM members",
+                (rs, rowNum) -> {
+                    Map<String, Long> result = new HashMap<>(2);
+                    result.put(MIN_ID_KEY, rs.getLong("min_id"));
+                    result.put(MAX_ID_KEY, rs.getLong("max_id"));
+                    return result;
+                }
+        );
+
+        long minId = range.get(MIN_ID_KEY);
+        long maxId = range.get(MAX_ID_KEY);
+        long targetSize = (maxId - minId) / Math.max(gridSize, 1) + 1;
+
+        Map<String, ExecutionContext> partitions = new HashMap<>(gridSize);
+        long start = minId;
+        int number = 0;
+        while (start <= maxId) {
+            long end = Math.min(start + targetSize - 1, maxId);
+
+            ExecutionContext context = new ExecutionContext();
+            context.putLong(MIN_ID_KEY, start);
+            context.putLong(MAX_ID_KEY, end);
+            partitions.put(PARTITION_KEY + number, context);
+
+            log.info("[MemberIdRangePartitioner] partition{} = [{}, {}]", number, start, end);
+            start = end + 1;
+            number++;
+        }
+
+        return partitions;
+    }
+}
@@ -0,0 +1,298 @@
+package shop.yesaladin.batch.member.reader;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.member.dto.MemberCouponRequestDto;
+import shop.yesaladin.batch.member.dto.MemberDto;
+
+/**
+ * 여러 스레드에서 실행하는 생일 쿠폰 Step 의 chunk 가 읽은 회원 id 구간의 완료 순서를 추적하여 재시작 위치를 저장하는 클래스입니다.
+ * <p>
+ * chunk 는 첫 회원을 읽을 때 읽기 잠금을 얻고 item 처리를 시작할 때 잠금을 놓으므로, 한 chunk 가 읽은 회원은 회원 id 가 연속된 구간을
+ * 이룹니다. 구간의 회원이 모두 등록되거나 skip 또는 필터링되면 구간을 완료로 표시하고, 앞선 구간이 모두 완료된 위치까지만 재시작 위치로
+ * 저장합니다. 재시작 위치 이후에 먼저 완료된 구간과 회원도 함께 저장하며, 재시작하는 경우 그 회원은 읽지 않고 건너뛰므로 먼저 끝난 chunk 의
+ * 회원 쿠폰 등록 요청을 다시 보내지 않습니다. 건너뛴 회원의 쿠폰 코드는 BirthdayCouponCodeAllocator 가 사용하지 않은 코드로 기록합니다.
+ * <p>
+ * 실패한 chunk 를 회원 단위로 다시 등록하다가 skip 할 수 없는 예외로 Step 이 실패하면 먼저 등록한 회원은 저장되지 않으므로, Step 이 끝날 때
+ * 완료된 위치를 한 번 더 저장합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@StepScope
+@Component
+public class BirthdayMemberChunkTracker implements StepExecutionListener, ChunkListener,
+        ItemProcessListener<MemberDto, MemberCouponRequestDto>,
+        ItemWriteListener<MemberCouponRequestDto>,
+        SkipListener<MemberDto, MemberCouponRequestDto> {
+
+    public static final String COMPLETED_RANGES_KEY = "birthdayMemberChunkTracker.completedRanges";
+
+    private final ReentrantLock readLock = new ReentrantLock();
+    private final NavigableMap<Long, MemberIdRange> pendingRanges = new TreeMap<>();
+    private NavigableMap<Long, Long> completedRanges = new TreeMap<>();
+    private MemberIdRange readingRange;
+    private long lastMemberId;
+
+    /**
+     * delegate 에서 chunk 마다 연속된 회원을 읽고, 읽은 위치 대신 완료된 위치를 저장하는 ItemStreamReader 를 만듭니다.
+     *
+     * @param delegate 회원 id 오름차순으로 회원을 읽는 reader
+     * @return 여러 스레드에서 공유할 수 있는 ItemStreamReader
+     */
+    public ItemStreamReader<MemberDto> track(ItemStreamReader<MemberDto> delegate) {
+        return new ItemStreamReader<>() {
+            @Override
+            public MemberDto read() throws Exception {
+                return BirthdayMemberChunkTracker.this.read(delegate);
+            }
+
+            @Override
+            public void open(ExecutionContext executionContext) {
+                BirthdayMemberChunkTracker.this.open(executionContext);
+                delegate.open(executionContext);
+            }
+
+            @Override
+            public void update(ExecutionContext executionContext) {
+                BirthdayMemberChunkTracker.this.update(executionContext);
+            }
+
+            @Override
+            public void close() {
+                delegate.close();
+            }
+        };
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        // 재시작 위치는 reader 를 열 때 읽습니다.
+    }
+
+    /**
+     * 마지막 chunk 이후에 완료된 회원까지 재시작 위치에 반영합니다. Step 은 afterStep 이후에 ExecutionContext 를 저장합니다.
+     *
+     * @param stepExecution 종료되는 StepExecution
+     * @return Step 의 ExitStatus 를 변경하지 않으므로 null
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        update(stepExecution.getExecutionContext());
+        return null;
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        // 읽기 잠금은 chunk 가 첫 회원을 읽을 때 얻습니다.
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        releaseReadLock();
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        releaseReadLock();
+    }
+
+    /**
+     * chunk 가 item 처리를 시작하면 읽기를 마친 것이므로 읽기 잠금을 놓습니다.
+     *
+     * @param item 처리할 회원
+     */
+    @Override
+    public void beforeProcess(MemberDto item) {
+        releaseReadLock();
+    }
+
+    @Override
+    public void afterProcess(MemberDto item, MemberCouponRequestDto result) {
+        if (Objects.isNull(result)) {
+            complete(item.getMemberId());
+        }
+    }
+
+    @Override
+    public void onProcessError(MemberDto item, Exception e) {
+        // 실패한 회원은 재시도되거나 skip 된 후 완료됩니다.
+    }
+
+    @Override
+    public void beforeWrite(List<? extends MemberCouponRequestDto> items) {
+        // 등록 요청이 성공한 후에 완료로 표시합니다.
+    }
+
+    @Override
+    public void afterWrite(List<? extends MemberCouponRequestDto> items) {
+        for (MemberCouponRequestDto item : items) {
+            complete(item.getMemberId());
+        }
+    }
+
+    @Override
+    public void onWriteError(Exception exception, List<? extends MemberCouponRequestDto> items) {
+        // 실패한 chunk 는 재시도되거나 회원 단위로 다시 등록된 후 완료됩니다.
+    }
+
+    @Override
+    public void onSkipInRead(Throwable t) {
+        // 읽지 못한 회원은 구간에 포함되지 않습니다.
+    }
+
+    @Override
+    public void onSkipInProcess(MemberDto item, Throwable t) {
+        complete(item.getMemberId());
+    }
+
+    @Override
+    public void onSkipInWrite(MemberCouponRequestDto item, Throwable t) {
+        complete(item.getMemberId());
+    }
+
+    private MemberDto read(ItemStreamReader<MemberDto> delegate) throws Exception {
+        if (!readLock.isHeldByCurrentThread()) {
+            readLock.lock();
+            readingRange = null;
+        }
+
+        MemberDto member;
+        do {
+            member = delegate.read();
+        } while (Objects.nonNull(member) && isCompletedBefore(member.getMemberId()));
+
+        if (Objects.nonNull(member)) {
+            addToReadingRange(member.getMemberId());
+        }
+        return member;
+    }
+
+    private void releaseReadLock() {
+        if (readLock.isHeldByCurrentThread()) {
+            readingRange = null;
+            readLock.unlock();
+        }
+    }
+
+    private synchronized void open(ExecutionContext executionContext) {
+        lastMemberId = executionContext.getLong(BirthdayMemberItemReader.LAST_MEMBER_ID_KEY, 0L);
+        completedRanges = parseRanges(executionContext.getString(COMPLETED_RANGES_KEY, ""));
+        pendingRanges.clear();
+    }
+
+    /**
+     * 앞선 구간이 모두 완료된 위치를 다음 회원을 조회할 위치로 저장하고, 그 이후에 완료된 구간과 회원을 함께 저장합니다.
+     *
+     * @param executionContext Step 의 ExecutionContext
+     */
+    private synchronized void update(ExecutionContext executionContext) {
+        StringJoiner ranges = new StringJoiner(",");
+        completedRanges.forEach((first, last) -> ranges.add(first + "-" + last));
+        for (MemberIdRange range : pendingRanges.values()) {
+            if (range.isCompleted()) {
+                ranges.add(range.first + "-" + range.last);
+                continue;
+            }
+            range.completed.forEach(memberId -> ranges.add(memberId + "-" + memberId));
+        }
+
+        executionContext.putLong(BirthdayMemberItemReader.LAST_MEMBER_ID_KEY, lastMemberId);
+        executionContext.putString(COMPLETED_RANGES_KEY, ranges.toString());
+    }
+
+    private synchronized boolean isCompletedBefore(long memberId) {
+        Map.Entry<Long, Long> range = completedRanges.floorEntry(memberId);
+        return Objects.nonNull(range) && memberId <= range.getValue();
+    }
+
+    private synchronized void addToReadingRange(long memberId) {
+        if (Objects.isNull(readingRange)) {
+            readingRange = new MemberIdRange(memberId);
+            pendingRanges.put(memberId, readingRange);
+        }
+        readingRange.add(memberId);
+    }
+
+    /**
+     * 회원을 완료로 표시하고, 가장 앞선 구간부터 완료된 구간을 재시작 위치에 반영합니다.
+     *
+     * @param memberId 등록, skip 또는 필터링된 회원 id
+     */
+    private synchronized void complete(long memberId) {
+        Map.Entry<Long, MemberIdRange> entry = pendingRanges.floorEntry(memberId);
+        if (Objects.isNull(entry) || !entry.getValue().complete(memberId)) {
+            return;
+        }
+
+        while (!pendingRanges.isEmpty() && pendingRanges.firstEntry().getValue().isCompleted()) {
+            lastMemberId = Math.max(lastMemberId, pendingRanges.pollFirstEntry().getValue().last);
+        }
+        completedRanges.values().removeIf(last -> last <= lastMemberId);
+    }
+
+    private static NavigableMap<Long, Long> parseRanges(String value) {
+        NavigableMap<Long, Long> ranges = new TreeMap<>();
+        if (value.isEmpty()) {
+            return ranges;
+        }
+        for (String range : value.split(",")) {
+            String[] bounds = range.split("-", 2);
+            ranges.put(Long.parseLong(bounds[0]), Long.parseLong(bounds[1]));
+        }
+        return ranges;
+    }
+
+    /**
+     * 한 chunk 가 읽은 회원 id 구간과 아직 완료되지 않은 회원입니다.
+     */
+    private static class MemberIdRange {
+
+        private final long first;
+        private long last;
+        private final Set<Long> remaining = new HashSet<>();
+        private final List<Long> completed = new ArrayList<>();
+
+        MemberIdRange(long first) {
+            this.first = first;
+            this.last = first;
+        }
+
+        void add(long memberId) {
+            last = memberId;
+            remaining.add(memberId);
+        }
+
+        boolean complete(long memberId) {
+            if (!remaining.remove(memberId)) {
+                return false;
+            }
+            completed.add(memberId);
+            return true;
+        }
+
+        boolean isCompleted() {
+            return remaining.isEmpty();
+        }
+    }
+}
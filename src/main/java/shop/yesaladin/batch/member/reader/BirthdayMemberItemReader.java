@@ -0,0 +1,152 @@
+package shop.yesaladin.batch.member.reader;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import shop.yesaladin.batch.common.http.StreamingDataExtractor;
+import shop.yesaladin.batch.member.dto.MemberDto;
+
+/**
+ * Shop 서버에서 생일인 회원을 회원 id 커서 기반으로 페이지 단위로 조회하는 ItemStreamReader 입니다.
+ * <p>
+ * 메모리에는 현재 페이지만 유지하며, 지금까지 읽은 가장 큰 회원 id 를 ExecutionContext 에 저장하여 재시작하는 경우 다음 회원부터 조회합니다.
+ * Shop 서버의 응답 순서에 의존하지 않도록 조회한 페이지를 회원 id 오름차순으로 정렬하고 중복된 회원 id 를 제거하며, 커서 이하의 회원 id 는
+ * 무시하므로 같은 회원을 두 번 읽지 않습니다. 응답은 StreamingDataExtractor 로 회원 단위로 읽어 바로 페이지에 담으므로 응답 전체를 목록으로
+ * 만들지 않습니다.
+ * <p>
+ * 페이지 조회에는 Shop 서버의 lastMemberId, size 파라미터가 필요합니다. Shop 서버가 두 파라미터를 지원하지 않으면 생일인 회원 전체를 한
+ * 페이지로 받고, 다음 조회에서 새 회원이 없으므로 읽기를 끝냅니다. 페이지를 조회할 때마다 BirthdayMemberPageListener 에 회원 수를
+ * 알립니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+public class BirthdayMemberItemReader implements ItemStreamReader<MemberDto> {
+
+    public static final String LAST_MEMBER_ID_KEY = "birthdayMemberItemReader.lastMemberId";
+
+    private final RestTemplate restTemplate;
+    private final ObjectMapper objectMapper;
+    private final String shopServerUrl;
+    private final int laterDays;
+    private final int pageSize;
+    private final Deque<MemberDto> page = new ArrayDeque<>();
+    private long lastMemberId;
+    private boolean lastPage;
+    private boolean saveState = true;
+    private BirthdayMemberPageListener pageListener = (memberCount, last) -> {
+    };
+
+    public BirthdayMemberItemReader(
+            RestTemplate restTemplate,
+            ObjectMapper objectMapper,
+            String shopServerUrl,
+            int laterDays,
+            int pageSize
+    ) {
+        this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.shopServerUrl = shopServerUrl;
+        this.laterDays = laterDays;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * 현재 페이지의 다음 회원을 반환합니다. 현재 페이지를 모두 읽은 경우 다음 페이지를 조회합니다.
+     *
+     * @return 생일인 회원, 더 이상 회원이 없는 경우 null
+     */
+    @Override
+    public MemberDto read() {
+        if (page.isEmpty() && !lastPage) {
+            fetchNextPage();
+        }
+
+        MemberDto member = page.poll();
+        if (Objects.nonNull(member)) {
+            lastMemberId = Math.max(lastMemberId, member.getMemberId());
+        }
+        return member;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) {
+        lastMemberId = saveState ? executionContext.getLong(LAST_MEMBER_ID_KEY, 0L) : 0L;
+        lastPage = false;
+        page.clear();
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) {
+        if (saveState) {
+            executionContext.putLong(LAST_MEMBER_ID_KEY, lastMemberId);
+        }
+    }
+
+    /**
+     * 마지막으로 읽은 회원 id 를 ExecutionContext 에서 읽고 저장할지 설정합니다.
+     *
+     * @param saveState 읽은 위치를 저장하고 재시작할 때 이어서 읽는 경우 true
+     */
+    public void setSaveState(boolean saveState) {
+        this.saveState = saveState;
+    }
+
+    /**
+     * 페이지를 조회할 때마다 호출할 리스너를 설정합니다.
+     *
+     * @param pageListener 조회한 페이지의 회원 수를 전달받을 리스너
+     */
+    public void setPageListener(BirthdayMemberPageListener pageListener) {
+        this.pageListener = pageListener;
+    }
+
+    @Override
+    public void close() {
+        page.clear();
+    }
+
+    private void fetchNextPage() {
+        String uriString = UriComponentsBuilder.fromHttpUrl(shopServerUrl)
+                .pathSegment("v1", "members", "birthday")
+                .queryParam("laterDays", laterDays)
+                .queryParam("lastMemberId", lastMemberId)
+                .queryParam("size", pageSize)
+                .toUriString();
+
+        long cursor = lastMemberId;
+        List<MemberDto> members = new ArrayList<>();
+        Integer fetched = restTemplate.execute(
+                uriString,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                new StreamingDataExtractor<>(objectMapper, MemberDto.class, member -> {
+                    if (member.getMemberId() > cursor) {
+                        members.add(member);
+                    }
+                })
+        );
+        members.sort(Comparator.comparing(MemberDto::getMemberId));
+        for (MemberDto member : members) {
+            if (page.isEmpty() || member.getMemberId() > page.getLast().getMemberId()) {
+                page.add(member);
+            }
+        }
+        lastPage = Objects.requireNonNull(fetched) < pageSize || page.isEmpty();
+
+        log.info("[BirthdayMemberItemReader] after {} fetched {} members", cursor, page.size());
+        pageListener.onPage(page.size(), lastPage);
+    }
+}
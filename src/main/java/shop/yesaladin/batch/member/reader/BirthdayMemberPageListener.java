@@ -0,0 +1,19 @@
+package shop.yesaladin.batch.member.reader;
+
+/**
+ * BirthdayMemberItemReader 가 Shop 서버에서 생일인 회원 페이지를 조회할 때마다 호출되는 리스너입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@FunctionalInterface
+public interface BirthdayMemberPageListener {
+
+    /**
+     * 조회한 페이지의 회원 수와 다음 페이지가 있는지 여부를 전달합니다.
+     *
+     * @param memberCount 이번 페이지에서 새로 읽을 회원 수
+     * @param lastPage    더 조회할 페이지가 없는 경우 true
+     */
+    void onPage(int memberCount, boolean lastPage);
+}
@@ -13,6 +13,7 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -31,6 +32,15 @@ public class MemberGradeScheduler {
     private final JobLauncher jobLauncher;
     private static final String TWO_AM_1ST_OF_EVERY_MONTH = "0 0 2 1 * *";
 
+    @Value("${yesaladin.batch.member-grade.mode:CHUNK}")
+    private String gradeUpdateMode;
+
+    @Value("${yesaladin.batch.member-grade.pay-amount-source:STAGING}")
+    private String payAmountSource;
+
+    @Value("${yesaladin.batch.member-grade.point-issuance-mode:SEPARATE}")
+    private String pointIssuanceMode;
+
     /**
      * 매월 1일 02시에 조회 시작일(지난달 1일), 조회 마지막일(이번달 1일) 파라미터를 갖는 updateMemberGradeJob 을 실행합니다.
      */
@@ -42,6 +52,9 @@ public class MemberGradeScheduler {
         JobParameters jobParameters = new JobParametersBuilder()
                 .addString("startDate", inquiryStartDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
                 .addString("endDate", inquiryEndDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .addString("gradeUpdateMode", gradeUpdateMode)
+                .addString("payAmountSource", payAmountSource)
+                .addString("pointIssuanceMode", pointIssuanceMode)
                 .addDate("currentDate", new Date())
                 .toJobParameters();
 
@@ -0,0 +1,54 @@
+package shop.yesaladin.batch.member.scheduler;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원별 월간 주문 금액 집계 Job 의 스케줄러 입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class MemberMonthlySpendRollupScheduler {
+
+    private final Job rollupMemberMonthlySpendJob;
+    private final JobLauncher jobLauncher;
+    private static final String HALF_PAST_MIDNIGHT_EVERY_DAY = "0 30 0 * * *";
+
+    /**
+     * 매일 00시 30분에 누적 마지막 날짜(전날) 파라미터를 갖는 rollupMemberMonthlySpendJob 을 실행합니다. 매월 1일 02시의 회원 등급 갱신
+     * Job 보다 먼저 지난달 마지막 날까지 누적됩니다.
+     */
+    @Scheduled(cron = HALF_PAST_MIDNIGHT_EVERY_DAY, zone = "Asia/Seoul")
+    public void scheduleRollupMemberMonthlySpend() {
+        LocalDate targetDate = LocalDate.now().minusDays(1);
+
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("targetDate", targetDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .addDate("currentDate", new Date())
+                .toJobParameters();
+
+        try {
+            jobLauncher.run(rollupMemberMonthlySpendJob, jobParameters);
+        } catch (JobExecutionAlreadyRunningException | JobInstanceAlreadyCompleteException |
+                 JobParametersInvalidException | JobRestartException e) {
+            log.error("", e);
+        }
+    }
+}
@@ -1,34 +1,49 @@
 package shop.yesaladin.batch.member.step;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Objects;
+import java.util.zip.GZIPOutputStream;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ItemProcessListener;
+import org.springframework.batch.core.ItemWriteListener;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.builder.FaultTolerantStepBuilder;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.retry.RetryListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicy;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicyFactory;
 import shop.yesaladin.batch.config.ServerMetaConfig;
-import shop.yesaladin.batch.member.dto.CouponRequestDto;
-import shop.yesaladin.batch.member.dto.CouponResponseDto;
+import shop.yesaladin.batch.member.allocator.BirthdayCouponCodeAllocator;
+import shop.yesaladin.batch.member.dto.MemberCouponBulkRequestDto;
 import shop.yesaladin.batch.member.dto.MemberCouponRequestDto;
 import shop.yesaladin.batch.member.dto.MemberDto;
 import shop.yesaladin.batch.member.listener.BirthdayCouponListener;
-import shop.yesaladin.common.dto.ResponseDto;
-import shop.yesaladin.coupon.trigger.TriggerTypeCode;
+import shop.yesaladin.batch.member.reader.BirthdayMemberChunkTracker;
+import shop.yesaladin.batch.member.reader.BirthdayMemberItemReader;
 
 /**
  * Shop 과 Coupon 서버의 API 통신을 통해 생일인 회원에게 생일 쿠폰을 발급하는 Batch Step 입니다.
@@ -44,129 +59,149 @@ public class BirthdayCouponStep {
     private final StepBuilderFactory stepBuilderFactory;
     private final RestTemplate restTemplate;
     private final ServerMetaConfig serverMetaConfig;
-    private List<CouponResponseDto> couponResponseDtoList;
+    private final AdaptiveChunkSizePolicyFactory adaptiveChunkSizePolicyFactory;
+    private final BirthdayCouponCodeAllocator birthdayCouponCodeAllocator;
     private final BirthdayCouponListener birthdayCouponListener;
-    private int currentIndex = 0;
+    private final BirthdayMemberChunkTracker birthdayMemberChunkTracker;
+    private final ObjectMapper objectMapper;
     private static final int CHUNK_SIZE = 500;
 
+    @Value("${yesaladin.batch.birthday-coupon.page-size:500}")
+    private int pageSize;
+
+    @Value("${yesaladin.batch.birthday-coupon.thread-count:1}")
+    private int threadCount;
+
+    @Value("${yesaladin.batch.birthday-coupon.compact-payload:false}")
+    private boolean compactPayload;
+
     /**
-     * n 일 후가 생일인 회원을 조회합니다. 조회한 생일 회원이 없는 경우 null 을 반환합니다.
+     * n 일 후가 생일인 회원을 Shop 서버에서 페이지 단위로 조회합니다. 페이지를 조회할 때마다 BirthdayCouponCodeAllocator 가 그 회원 수만큼
+     * 쿠폰 코드를 요청합니다. 여러 스레드로 실행하는 경우 BirthdayMemberChunkTracker 가 chunk 마다 연속된 회원을 읽게 하고, 읽은 위치
+     * 대신 앞선 chunk 가 모두 완료된 위치와 그 이후에 완료된 회원을 저장합니다.
      *
      * @param laterDays 오늘 날짜를 기준으로 생일을 계산할 일수
-     * @return 생일인 회원 목록을 조회하는 ListItemReader
+     * @return 생일인 회원을 페이지 단위로 조회하는 ItemStreamReader
      */
     @Bean
     @StepScope
-    public ListItemReader<MemberDto> listItemReader(@Value("#{jobParameters['laterDays']}") Integer laterDays) {
-        resetCurrentIndex();
-        List<MemberDto> memberIdList = getBirthdayMemberList(laterDays);
-        if (memberIdList.isEmpty()) {
-            log.info("=== Birthday membership list is empty. ===");
-            return null;
+    public ItemStreamReader<MemberDto> listItemReader(@Value("#{jobParameters['laterDays']}") Integer laterDays) {
+        BirthdayMemberItemReader reader = new BirthdayMemberItemReader(
+                restTemplate,
+                objectMapper,
+                serverMetaConfig.getShopServerUrl(),
+                laterDays,
+                pageSize
+        );
+        reader.setPageListener(birthdayCouponCodeAllocator);
+        if (threadCount <= 1) {
+            return reader;
         }
-        requestBirthdayCoupon(memberIdList.size());
-        return new ListItemReader<>(memberIdList);
+
+        return birthdayMemberChunkTracker.track(reader);
     }
 
     /**
-     * 회원과 쿠폰 정보를 처리하여 item 을 회원 쿠폰 등록 요청 dto 로 변환합니다.
+     * 회원에게 BirthdayCouponCodeAllocator 가 할당한 쿠폰 코드로 item 을 회원 쿠폰 등록 요청 dto 로 변환합니다.
      *
      * @return 회원 쿠폰 등록 요청 dto 로 변환하는 ItemProcessor
      */
     @Bean
     public ItemProcessor<MemberDto, MemberCouponRequestDto> itemProcessor() {
-        return item -> {
-            MemberCouponRequestDto dto = new MemberCouponRequestDto(item.getMemberId());
-            this.couponResponseDtoList.forEach(coupon -> {
-                dto.getCouponCodes().add(coupon.getCreatedCouponCodes().get(currentIndex++));
-                dto.getCouponGroupCodes().add(coupon.getCouponGroupCode());
-                dto.getExpirationDates().add(coupon.getExpirationDate());
-            });
-            return dto;
-        };
+        return item -> birthdayCouponCodeAllocator.allocate(item.getMemberId());
     }
 
     /**
-     * 회원 쿠폰 등록을 요청합니다.
+     * 회원 쿠폰 등록을 chunk 마다 한 번의 요청으로 보냅니다. 회원 쿠폰 등록 API 는 멱등하지 않으므로 chunk 를 나누어 보내지 않습니다.
      *
+     * @param streamingRestTemplate 압축된 일괄 요청 본문을 스트리밍할 RestTemplate
      * @return 회원 쿠폰 등록을 요청하는 ItemWriter
      */
     @Bean
-    public ItemWriter<MemberCouponRequestDto> itemWriter() {
+    public ItemWriter<MemberCouponRequestDto> itemWriter(
+            @Qualifier("streamingRestTemplate") RestTemplate streamingRestTemplate
+    ) {
+        if (compactPayload) {
+            return items -> registerMemberCouponInBulk(streamingRestTemplate, items);
+        }
         return this::registerMemberCoupon;
     }
 
     /**
-     * Shop, Coupon 서버와의 API 통신으로 생일인 회원에게 쿠폰을 지급하는 Step 입니다.
+     * 생일 쿠폰 Step 의 chunk 를 여러 스레드에서 실행할 TaskExecutor 입니다.
      *
-     * @return giveBirthdayCouponStep
+     * @return threadCount 개의 스레드를 가진 TaskExecutor
      */
     @Bean
-    public Step giveBirthdayCouponStep() {
-        return stepBuilderFactory.get("giveBirthdayCouponStep")
-                .<MemberDto, MemberCouponRequestDto>chunk(CHUNK_SIZE)
-                .reader(listItemReader(null))
-                .processor(itemProcessor())
-                .writer(itemWriter())
-                .faultTolerant()
-                .skip(IndexOutOfBoundsException.class)
-                .skipLimit(2)
-                .retry(NullPointerException.class)
-                .retryLimit(2)
-                .listener(birthdayCouponListener)
-                .build();
+    public TaskExecutor birthdayCouponTaskExecutor() {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(Math.max(threadCount, 1));
+        taskExecutor.setMaxPoolSize(Math.max(threadCount, 1));
+        taskExecutor.setThreadNamePrefix("BIRTHDAY-COUPON-");
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        taskExecutor.initialize();
+
+        return taskExecutor;
     }
 
     /**
-     * Coupon 서버에 생일 쿠폰 코드를 요청하여 Step 의 couponResponseDtoList 필드에 저장합니다.
+     * Coupon 서버에 다음 쿠폰 코드 묶음을 미리 요청할 TaskExecutor 입니다.
      *
-     * @param quantity 요청하는 수량
+     * @return 쿠폰 코드를 미리 요청하는 TaskExecutor
      */
-    private void requestBirthdayCoupon(int quantity) {
-        CouponRequestDto couponRequestDto = new CouponRequestDto(
-                TriggerTypeCode.BIRTHDAY,
-                quantity
-        );
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        HttpEntity<CouponRequestDto> request = new HttpEntity<>(couponRequestDto, headers);
-        String uriString = UriComponentsBuilder.fromHttpUrl(serverMetaConfig.getCouponServerUrl())
-                .pathSegment("v1", "issuances")
-                .toUriString();
-
-        ResponseEntity<ResponseDto<List<CouponResponseDto>>> response = restTemplate.exchange(
-                uriString,
-                HttpMethod.POST,
-                request,
-                new ParameterizedTypeReference<>() {
-                }
-        );
+    @Bean
+    public TaskExecutor birthdayCouponPrefetchExecutor() {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(1);
+        taskExecutor.setMaxPoolSize(2);
+        taskExecutor.setThreadNamePrefix("BIRTHDAY-COUPON-PREFETCH-");
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        taskExecutor.initialize();
 
-        this.couponResponseDtoList = Objects.requireNonNull(response.getBody()).getData();
+        return taskExecutor;
     }
 
     /**
-     * 생일 회원을 조회합니다.
+     * Shop, Coupon 서버와의 API 통신으로 생일인 회원에게 쿠폰을 지급하는 Step 입니다. 읽기와 쓰기 모두 API 통신이므로 chunk 트랜잭션은
+     * DB 커넥션을 잡지 않는 ResourcelessTransactionManager 로 실행합니다.
+     * <p>
+     * threadCount 가 2 이상이면 최대 threadCount 개의 chunk 를 동시에 처리하며, chunk 마다 한 번의 회원 쿠폰 등록 요청을 보냅니다.
+     * 실패한 chunk 는 자신의 스레드에서 재시도와 skip 처리를 거치고, BirthdayMemberChunkTracker 가 chunk 의 완료 순서를 추적하여
+     * 재시작 위치를 저장합니다.
      *
-     * @param laterDays 오늘 날짜를 기준으로 생일을 계산할 일수
-     * @return laterDays 후가 생일인 회원 목록
+     * @return giveBirthdayCouponStep
      */
-    private List<MemberDto> getBirthdayMemberList(int laterDays) {
-        String uriString = UriComponentsBuilder.fromHttpUrl(serverMetaConfig.getShopServerUrl())
-                .pathSegment("v1", "members", "birthday")
-                .queryParam("laterDays", laterDays)
-                .toUriString();
+    @Bean
+    public Step giveBirthdayCouponStep() {
+        AdaptiveChunkSizePolicy chunkSizePolicy = adaptiveChunkSizePolicyFactory.create(CHUNK_SIZE);
 
-        ResponseEntity<ResponseDto<List<MemberDto>>> responseEntity = restTemplate.exchange(
-                uriString,
-                HttpMethod.GET,
-                null,
-                new ParameterizedTypeReference<>() {
-                }
-        );
+        FaultTolerantStepBuilder<MemberDto, MemberCouponRequestDto> builder = stepBuilderFactory
+                .get("giveBirthdayCouponStep")
+                .transactionManager(new ResourcelessTransactionManager())
+                .<MemberDto, MemberCouponRequestDto>chunk(chunkSizePolicy)
+                .reader(listItemReader(null))
+                .processor(itemProcessor())
+                .writer(itemWriter(null))
+                .faultTolerant()
+                .listener((RetryListener) chunkSizePolicy)
+                .skip(IndexOutOfBoundsException.class)
+                .skipLimit(2)
+                .retry(NullPointerException.class)
+                .retryLimit(2)
+                .listener(birthdayCouponListener)
+                .listener((ChunkListener) chunkSizePolicy);
+        builder.listener((StepExecutionListener) birthdayCouponCodeAllocator);
 
-        return Objects.requireNonNull(responseEntity.getBody()).getData();
+        if (threadCount > 1) {
+            builder.listener((StepExecutionListener) birthdayMemberChunkTracker);
+            builder.listener((ChunkListener) birthdayMemberChunkTracker)
+                    .listener((ItemProcessListener<MemberDto, MemberCouponRequestDto>) birthdayMemberChunkTracker)
+                    .listener((ItemWriteListener<MemberCouponRequestDto>) birthdayMemberChunkTracker)
+                    .listener((SkipListener<MemberDto, MemberCouponRequestDto>) birthdayMemberChunkTracker)
+                    .taskExecutor(birthdayCouponTaskExecutor())
+                    .throttleLimit(threadCount);
+        }
+        return builder.build();
     }
 
     /**
@@ -195,9 +230,33 @@ public class BirthdayCouponStep {
     }
 
     /**
-     * currentIndex 를 초기화합니다.
+     * Shop 서버에게 쿠폰 그룹 코드와 만료일을 한 번만 담은 일괄 요청 형식으로 회원 쿠폰 등록을 요청합니다. 쿠폰 그룹이 다른 회원들도 한
+     * 요청에 담습니다. 요청 본문은 문자열로 만들지 않고 gzip 으로 압축하면서 바로 요청 스트림에 쓰므로, 본문을 버퍼링하는 인터셉터가 없는
+     * RestTemplate 으로 보냅니다.
+     *
+     * @param streamingRestTemplate 요청 본문을 스트리밍하는 RestTemplate
+     * @param items                 회원 쿠폰 등록 요청 리스트
      */
-    private void resetCurrentIndex() {
-        this.currentIndex = 0;
+    private void registerMemberCouponInBulk(
+            RestTemplate streamingRestTemplate,
+            List<? extends MemberCouponRequestDto> items
+    ) {
+        String uriString = UriComponentsBuilder.fromHttpUrl(serverMetaConfig.getShopServerUrl())
+                .pathSegment("v1", "coupons", "bulk")
+                .toUriString();
+
+        List<MemberCouponBulkRequestDto> bulkRequests = MemberCouponBulkRequestDto.of(items);
+        streamingRestTemplate.execute(
+                uriString,
+                HttpMethod.POST,
+                request -> {
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+                    try (OutputStream body = new GZIPOutputStream(StreamUtils.nonClosing(request.getBody()))) {
+                        objectMapper.writeValue(body, bulkRequests);
+                    }
+                },
+                null
+        );
     }
 }
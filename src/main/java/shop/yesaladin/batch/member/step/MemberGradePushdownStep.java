@@ -0,0 +1,200 @@
+package shop.yesaladin.batch.member.step;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import shop.yesaladin.batch.member.listener.MemberGradeUpdateListener;
+import shop.yesaladin.batch.member.model.MemberGrade;
+import shop.yesaladin.batch.member.model.MemberPayAmountSource;
+import shop.yesaladin.batch.member.model.MemberPointIssuanceMode;
+
+/**
+ * 회원 id 범위별로 회원 등급 계산과 수정을 데이터베이스 안에서 처리하는 Batch Step 입니다.
+ * <p>
+ * {@link MemberGradeUpdateStep} 과 같은 결과를 만들지만, 회원 정보를 읽어오지 않고 MemberGrade 의 기준 금액으로 만든 CASE 식을 사용하여
+ * 범위마다 INSERT ... SELECT 와 UPDATE ... JOIN 을 한 번씩 실행합니다. 범위마다 트랜잭션이 커밋되며 마지막으로 처리한 회원 id 가 Step
+ * ExecutionContext 에 저장되므로 재시작 시 처리하지 않은 범위부터 실행합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+public class MemberGradePushdownStep {
+
+    private static final String LAST_MEMBER_ID_KEY = "lastMemberId";
+    private static final String MAX_MEMBER_ID_KEY = "maxMemberId";
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final MemberGradeUpdateListener memberGradeUpdateListener;
+
+    @Value("${yesaladin.batch.member-grade.pushdown-range-size:10000}")
+    private long rangeSize;
+
+    /**
+     * 회원 id 를 rangeSize 단위로 나누어, 범위마다 등급이 바뀌는 회원의 등급 변경 내역을 저장하고 회원 등급을 수정합니다.
+     * <p>
+     * 포인트를 함께 지급하는 경우 같은 트랜잭션에서 범위 안의 화이트 등급이 아닌 회원에게 포인트 내역을 저장합니다.
+     *
+     * @param payAmountSource   순수 주문 금액을 읽어올 테이블, 없는 경우 스테이징 테이블
+     * @param pointIssuanceMode 포인트 지급 방식, 없는 경우 updateMemberPointStep 에서 지급
+     * @param startDate         주문 조회 기간의 시작 날짜, 지난달 1일
+     * @param stepExecution     처리한 범위를 저장할 StepExecution
+     * @return 회원 id 범위마다 등급을 수정하는 tasklet
+     */
+    @Bean
+    @StepScope
+    public Tasklet pushdownUpdateMemberGradeTasklet(
+            @Value("#{jobParameters['payAmountSource']}") String payAmountSource,
+            @Value("#{jobParameters['pointIssuanceMode']}") String pointIssuanceMode,
+            @Value("#{jobParameters['startDate']}") String startDate,
+            @Value("#{stepExecution}") StepExecution stepExecution
+    ) {
+        NamedParameterJdbcTemplate jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        MemberPayAmountSource source = MemberPayAmountSource.from(payAmountSource);
+        boolean fused = MemberPointIssuanceMode.from(pointIssuanceMode) == MemberPointIssuanceMode.FUSED;
+        String yearMonth = YearMonth.from(LocalDate.parse(startDate)).toString();
+
+        return (contribution, chunkContext) -> {
+            ExecutionContext context = stepExecution.getExecutionContext();
+            if (!context.containsKey(LAST_MEMBER_ID_KEY)) {
+                initializeRange(jdbcTemplate, context);
+            }
+
+            long fromId = context.getLong(LAST_MEMBER_ID_KEY);
+            long maxId = context.getLong(MAX_MEMBER_ID_KEY);
+            if (fromId >= maxId) {
+                return RepeatStatus.FINISHED;
+            }
+            long toId = Math.min(fromId + rangeSize, maxId);
+
+            Map<String, Object> parameters = new HashMap<>(4);
+            parameters.put("year_month", yearMonth);
+            parameters.put("job_instance_id", stepExecution.getJobExecution().getJobId());
+            parameters.put("from_id", fromId);
+            parameters.put("to_id", toId);
+
+            int inserted = jdbcTemplate.update(insertMemberGradeHistorySql(source), parameters);
+            int updated = jdbcTemplate.update(updateMemberGradeSql(source), parameters);
+            int pointGiven = fused ? jdbcTemplate.update(insertPointHistorySql(), parameters) : 0;
+            contribution.incrementWriteCount(updated);
+            context.putLong(LAST_MEMBER_ID_KEY, toId);
+
+            log.debug("[MemberGradePushdownStep] ({}, {}] histories = {}, updated = {}, points = {}",
+                    fromId, toId, inserted, updated, pointGiven);
+            return RepeatStatus.CONTINUABLE;
+        };
+    }
+
+    /**
+     * 회원 등급 계산과 수정을 데이터베이스에서 처리하는 Step 입니다.
+     *
+     * @return pushdownUpdateMemberGradeTasklet 을 실행하는 Step
+     */
+    @Bean
+    @JobScope
+    public Step pushdownUpdateMemberGradeStep() {
+        return stepBuilderFactory.get("pushdownUpdateMemberGradeStep")
+                .tasklet(pushdownUpdateMemberGradeTasklet(null, null, null, null))
+                .listener(memberGradeUpdateListener)
+                .build();
+    }
+
+    /**
+     * 처리할 회원 id 범위를 조회하여 ExecutionContext 에 저장합니다.
+     */
+    private void initializeRange(NamedParameterJdbcTemplate jdbcTemplate, ExecutionContext context) {
+        Map<String, Object> range = jdbcTemplate.getJdbcOperations().queryForMap(
+                "SELECT IFNULL(MIN(id), 1) - 1 AS min_id, IFNULL(MAX(id), 0) AS max_id FROM members");
+
+        context.putLong(LAST_MEMBER_ID_KEY, ((Number) range.get("min_id")).longValue());
+        context.putLong(MAX_MEMBER_ID_KEY, ((Number) range.get("max_id")).longValue());
+    }
+
+    /**
+     * 범위 안에서 등급이 바뀌는 회원의 등급 변경 내역을 삽입하는 쿼리를 작성합니다.
+     */
+    private String insertMemberGradeHistorySql(MemberPayAmountSource source) {
+        String payAmount = "IFNULL(" + MemberGradeUpdateStep.payAmountColumn(source) + ", 0)";
+
+        return "INSERT INTO member_grade_histories "
+                + "SELECT null, now(), g.pay_amount, g.member_grade_id, g.member_id FROM ("
+                + "SELECT m.id AS member_id, m.member_grade_id AS current_grade_id, "
+                + payAmount + " AS pay_amount, " + memberGradeCase(payAmount) + " AS member_grade_id "
+                + "FROM " + MemberGradeUpdateStep.payAmountFromClause(source) + " "
+                + "WHERE m.id > :from_id AND m.id <= :to_id) AS g "
+                + "WHERE g.member_grade_id <> g.current_grade_id";
+    }
+
+    /**
+     * 범위 안에서 등급이 바뀌는 회원의 등급을 수정하는 쿼리를 작성합니다.
+     */
+    private String updateMemberGradeSql(MemberPayAmountSource source) {
+        String payAmount = "IFNULL(" + MemberGradeUpdateStep.payAmountColumn(source) + ", 0)";
+        String memberGradeCase = memberGradeCase(payAmount);
+
+        return "UPDATE " + MemberGradeUpdateStep.payAmountFromClause(source) + " "
+                + "SET m.member_grade_id = " + memberGradeCase + " "
+                + "WHERE m.id > :from_id AND m.id <= :to_id "
+                + "AND m.member_grade_id <> " + memberGradeCase;
+    }
+
+    /**
+     * 범위 안의 화이트 등급이 아닌 회원에게 MemberGrade 의 등급별 지급 포인트 내역을 삽입하는 쿼리를 작성합니다. 회원 등급을 수정한 후에
+     * 실행합니다.
+     */
+    private String insertPointHistorySql() {
+        StringBuilder memberGradePoint = new StringBuilder("CASE m.member_grade_id");
+        Arrays.stream(MemberGrade.values())
+                .forEach(grade -> memberGradePoint.append(" WHEN ").append(grade.getId())
+                        .append(" THEN ").append(grade.getBaseGivenPoint()));
+        memberGradePoint.append(" END");
+
+        return "INSERT INTO " + MemberPointUpdateStep.POINT_HISTORY_TABLE + " "
+                + "SELECT null, " + memberGradePoint + ", now(), m.id, "
+                + MemberPointUpdateStep.GRADE_POINT_CODE_ID + " "
+                + "FROM members AS m "
+                + "WHERE m.id > :from_id AND m.id <= :to_id "
+                + "AND m.member_grade_id <> " + MemberGrade.WHITE.getId();
+    }
+
+    /**
+     * MemberGrade 의 기준 금액으로 순수 주문 금액에 해당하는 회원 등급 id 를 계산하는 CASE 식을 작성합니다. 기준 금액이 높은 등급부터 비교하며,
+     * {@link MemberGradeUpdateStep#getMemberGradeId(Long)} 와 같은 결과를 반환합니다.
+     *
+     * @param payAmount 순수 주문 금액 식
+     * @return 회원 등급 id 를 계산하는 CASE 식
+     */
+    static String memberGradeCase(String payAmount) {
+        StringBuilder sql = new StringBuilder("CASE");
+
+        Arrays.stream(MemberGrade.values())
+                .filter(grade -> grade != MemberGrade.WHITE)
+                .sorted(Comparator.comparing(MemberGrade::getBaseOrderAmount).reversed())
+                .forEach(grade -> sql.append(" WHEN ").append(payAmount)
+                        .append(" >= ").append(grade.getBaseOrderAmount())
+                        .append(" THEN ").append(grade.getId()));
+
+        return sql.append(" ELSE ").append(MemberGrade.WHITE.getId()).append(" END").toString();
+    }
+}
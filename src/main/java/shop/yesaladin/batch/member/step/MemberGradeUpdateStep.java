@@ -1,15 +1,24 @@
 package shop.yesaladin.batch.member.step;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.item.ItemProcessor;
+import org.springframework.batch.item.ItemWriter;
 import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.item.database.Order;
@@ -22,11 +31,23 @@ import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.dao.DeadlockLoserDataAccessException;
+import org.springframework.retry.RetryListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicy;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicyFactory;
+import shop.yesaladin.batch.common.paging.UniqueSortKeyValidator;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriter;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriterFactory;
+import shop.yesaladin.batch.member.converter.MemberGradeCodeConverter;
 import shop.yesaladin.batch.member.dto.MemberGradeDto;
 import shop.yesaladin.batch.member.listener.MemberGradeUpdateListener;
 import shop.yesaladin.batch.member.mapper.MemberGradeDtoRowMapper;
 import shop.yesaladin.batch.member.model.MemberGrade;
+import shop.yesaladin.batch.member.model.MemberPayAmountSource;
+import shop.yesaladin.batch.member.model.MemberPointIssuanceMode;
+import shop.yesaladin.batch.member.partitioner.MemberIdRangePartitioner;
 
 /**
  * 매월 1일 전체 회원을 대상으로 지난달 주문에 대한 회원별 주문 금액을 산정하여 회원의 등급을 수정하는 Batch Step 입니다.
@@ -41,30 +62,55 @@ public class MemberGradeUpdateStep {
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
     private final MemberGradeUpdateListener memberGradeUpdateListener;
+    private final BulkInsertItemWriterFactory bulkInsertItemWriterFactory;
+    private final AdaptiveChunkSizePolicyFactory adaptiveChunkSizePolicyFactory;
+    private final UniqueSortKeyValidator uniqueSortKeyValidator;
     private static final int CHUNK_SIZE = 100;
 
+    @Value("${yesaladin.batch.member-grade.grid-size:4}")
+    private int gridSize;
+
+    @Value("${yesaladin.batch.member-grade.pool-size:4}")
+    private int poolSize;
+
     /**
-     * 회원 정보와 조회 기간에 대한 주문 및 결제 취소 금액을 페이지 단위로 읽어옵니다.
+     * 회원 정보와 조회 기간의 순수 주문 금액을 페이지 단위로 읽어옵니다. 순수 주문 금액은 payAmountSource 파라미터에 따라 스테이징 테이블 또는 월간
+     * 주문 금액 집계 테이블에서 읽으며, 파티션으로 실행되는 경우 파티션에 할당된 회원 id 범위만 조회합니다.
      *
-     * @param startDate 주문 조회 기간의 시작 날짜, 지난달 1일
-     * @param endDate   주문 조회 기간 마지막 날짜의 다음날, 이번달 1일
+     * @param payAmountSource 순수 주문 금액을 읽어올 테이블, 없는 경우 스테이징 테이블
+     * @param startDate       주문 조회 기간의 시작 날짜, 지난달 1일
+     * @param jobInstanceId   스테이징 테이블에서 읽을 집계의 Job 인스턴스 id
+     * @param minId           파티션에 할당된 회원 id 범위의 시작, 파티션이 아닌 경우 null
+     * @param maxId           파티션에 할당된 회원 id 범위의 끝, 파티션이 아닌 경우 null
      * @return 데이터베이스에서 회원 정보를 page size 단위로 조회하는 reader
      * @throws Exception
      */
     @Bean
     @StepScope
     public JdbcPagingItemReader<MemberGradeDto> memberGradeDtoItemReader(
+            @Value("#{jobParameters['payAmountSource']}") String payAmountSource,
             @Value("#{jobParameters['startDate']}") String startDate,
-            @Value("#{jobParameters['endDate']}") String endDate
+            @Value("#{stepExecution.jobExecution.jobId}") Long jobInstanceId,
+            @Value("#{stepExecutionContext['minId']}") Long minId,
+            @Value("#{stepExecutionContext['maxId']}") Long maxId
     ) throws Exception {
-        Map<String, Object> parameterValues = new HashMap<>(2);
-        parameterValues.put("start_date", startDate);
-        parameterValues.put("end_date", endDate);
+        MemberPayAmountSource source = MemberPayAmountSource.from(payAmountSource);
+        boolean partitioned = minId != null && maxId != null;
+        Map<String, Object> parameterValues = new HashMap<>(3);
+        if (source == MemberPayAmountSource.ROLLUP) {
+            parameterValues.put("year_month", YearMonth.from(LocalDate.parse(startDate)).toString());
+        } else {
+            parameterValues.put("job_instance_id", jobInstanceId);
+        }
+        if (partitioned) {
+            parameterValues.put("min_id", minId);
+            parameterValues.put("max_id", maxId);
+        }
 
         return new JdbcPagingItemReaderBuilder<MemberGradeDto>()
                 .name("memberGradeDtoItemReader")
                 .dataSource(dataSource)
-                .queryProvider(pagingQueryProvider())
+                .queryProvider(pagingQueryProvider(source, partitioned))
                 .parameterValues(parameterValues)
                 .pageSize(CHUNK_SIZE)
                 .rowMapper(new MemberGradeDtoRowMapper())
@@ -72,39 +118,54 @@ public class MemberGradeUpdateStep {
     }
 
     /**
-     * 회원, 주문, 결제 관련 테이블을 조인하여 회원 정보와 지정된 조회 기간에 대한 주문 및 결제 취소 금액을 page size 단위로 조회하는 쿼리를 작성합니다.
+     * 회원 테이블과 회원별 순수 주문 금액 테이블을 조인하여 회원 id 순서로 page size 단위로 조회하는 쿼리를 작성합니다. 월간 주문 금액 집계 테이블은
+     * (member_id, year_month) 기본키로 조인됩니다.
      *
+     * @param source      순수 주문 금액을 읽어올 테이블
+     * @param partitioned 회원 id 범위 조건을 추가할지 여부
      * @return 지정된 데이터베이스 유형에 적합한 PagingQueryProvider 인스턴스
      * @throws Exception 데이터베이스 유형을 결정하지 못할 경우 예외
      */
-    public PagingQueryProvider pagingQueryProvider() throws Exception {
+    public PagingQueryProvider pagingQueryProvider(MemberPayAmountSource source, boolean partitioned)
+            throws Exception {
         SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
-        Map<String, Order> sortKey = new HashMap<>(1);
-        sortKey.put("member_id", Order.ASCENDING);
+        Map<String, Order> sortKey = new LinkedHashMap<>(1);
+        sortKey.put("m.id", Order.ASCENDING);
         factoryBean.setDataSource(dataSource);
 
         factoryBean.setSelectClause(
-                "m.id as member_id, v.total_amount - v.cancel_amount as pay_amount");
-        factoryBean.setFromClause("members as m left join "
-                + "(select mo.member_id as mid, sum(p.total_amount) as total_amount, sum(pc.cancel_amount) as cancel_amount "
-                + "from payments as p left join payment_cancels as pc on p.id = pc.payment_id "
-                + "join member_orders as mo on p.order_id = mo.order_id "
-                + "where p.approved_datetime >= :start_date and p.approved_datetime < :end_date "
-                + "group by mo.member_id) as v on m.id = v.mid");
-        factoryBean.setSortKeys(sortKey);
+                "m.id, m.member_grade_id, " + payAmountColumn(source) + " as pay_amount");
+        factoryBean.setFromClause(payAmountFromClause(source));
+        if (partitioned) {
+            factoryBean.setWhereClause("m.id between :min_id and :max_id");
+        }
+        factoryBean.setSortKeys(uniqueSortKeyValidator.validate("members", "m", sortKey));
 
         return factoryBean.getObject();
     }
 
     /**
-     * 지난달 순수 주문 금액에 따라 MemberGradeDto 의 회원 등급을 수정하는 비즈니스 로직을 수행합니다.
+     * 지난달 순수 주문 금액에 따라 MemberGradeDto 의 회원 등급을 수정하는 비즈니스 로직을 수행합니다. 등급이 바뀌지 않는 회원은 null 을 반환하여
+     * writer 에 전달되지 않도록 걸러냅니다. 포인트를 함께 지급하는 경우 등급이 바뀌지 않아도 화이트 등급이 아닌 회원은 writer 에 전달합니다.
      *
+     * @param pointIssuanceMode 포인트 지급 방식, 없는 경우 updateMemberPointStep 에서 지급
      * @return 회원 정보를 업데이트하는 비즈니스 로직을 수행하는 processor
      */
     @Bean
-    public ItemProcessor<MemberGradeDto, MemberGradeDto> memberGradeDtoItemProcessor() {
+    @StepScope
+    public ItemProcessor<MemberGradeDto, MemberGradeDto> memberGradeDtoItemProcessor(
+            @Value("#{jobParameters['pointIssuanceMode']}") String pointIssuanceMode
+    ) {
+        boolean fused = MemberPointIssuanceMode.from(pointIssuanceMode) == MemberPointIssuanceMode.FUSED;
+
         return item -> {
-            item.updateMemberGrade(getMemberGradeId(item.getPayAmount()));
+            int memberGradeId = getMemberGradeId(item.getPayAmount());
+            boolean pointGiven = fused && memberGradeId != MemberGrade.WHITE.getId();
+            if (Objects.equals(item.getCurrentMemberGradeId(), memberGradeId) && !pointGiven) {
+                return null;
+            }
+
+            item.updateMemberGrade(memberGradeId);
             return item;
         };
     }
@@ -123,17 +184,22 @@ public class MemberGradeUpdateStep {
     }
 
     /**
-     * 회원의 등급 변경 내역을 데이터베이스의 등급 변경 내역 테이블에 저장합니다.
+     * 회원의 등급 변경 내역을 데이터베이스의 등급 변경 내역 테이블에 chunk 단위로 한 번에 저장합니다.
      *
-     * @return 회원 등급 변경 내역을 삽입하는 sql 쿼리를 담은 writer
+     * @return 회원 등급 변경 내역을 삽입하는 writer
      */
     @Bean
-    public JdbcBatchItemWriter<MemberGradeDto> insertMemberGradeHistoryItemWriter() {
-        return new JdbcBatchItemWriterBuilder<MemberGradeDto>().dataSource(dataSource)
-                .sql("INSERT INTO member_grade_histories "
-                        + "VALUES (null, now(), :payAmount, :memberGradeId, :memberId)")
-                .beanMapped()
-                .build();
+    public BulkInsertItemWriter<MemberGradeDto> insertMemberGradeHistoryItemWriter() {
+        return bulkInsertItemWriterFactory.create(
+                "member_grade_histories",
+                item -> new Object[]{
+                        null,
+                        BulkInsertItemWriter.CURRENT_DATETIME,
+                        item.getPayAmount(),
+                        item.getMemberGradeId(),
+                        item.getMemberId()
+                }
+        );
     }
 
     /**
@@ -151,6 +217,61 @@ public class MemberGradeUpdateStep {
                 .build();
     }
 
+    /**
+     * 회원 등급에 맞는 지급 포인트 내역을 데이터베이스의 포인트 내역 테이블에 chunk 단위로 한 번에 저장합니다. 지급 포인트는 MemberGrade 의
+     * 등급별 지급 포인트입니다.
+     *
+     * @return 회원별 지급 포인트 내역을 삽입하는 writer
+     */
+    @Bean
+    public BulkInsertItemWriter<MemberGradeDto> insertMemberPointHistoryItemWriter() {
+        MemberGradeCodeConverter memberGradeCodeConverter = new MemberGradeCodeConverter();
+
+        return bulkInsertItemWriterFactory.create(
+                MemberPointUpdateStep.POINT_HISTORY_TABLE,
+                item -> MemberPointUpdateStep.pointHistoryRow(
+                        memberGradeCodeConverter.convertToEntityAttribute(item.getMemberGradeId())
+                                .getBaseGivenPoint(),
+                        item.getMemberId()
+                )
+        );
+    }
+
+    /**
+     * 등급이 바뀐 회원은 compositeItemWriter 로 등급과 등급 변경 내역을 저장하고, 포인트를 함께 지급하는 경우 화이트 등급이 아닌 회원의 포인트
+     * 내역을 같은 chunk 트랜잭션에서 저장합니다.
+     *
+     * @param pointIssuanceMode 포인트 지급 방식, 없는 경우 updateMemberPointStep 에서 지급
+     * @return 회원 등급과 포인트 내역을 저장하는 writer
+     */
+    @Bean
+    @StepScope
+    public ItemWriter<MemberGradeDto> memberGradeItemWriter(
+            @Value("#{jobParameters['pointIssuanceMode']}") String pointIssuanceMode
+    ) {
+        boolean fused = MemberPointIssuanceMode.from(pointIssuanceMode) == MemberPointIssuanceMode.FUSED;
+        CompositeItemWriter<MemberGradeDto> gradeWriter = compositeItemWriter();
+        BulkInsertItemWriter<MemberGradeDto> pointWriter = insertMemberPointHistoryItemWriter();
+
+        return items -> {
+            List<MemberGradeDto> changedItems = items.stream()
+                    .filter(MemberGradeDto::isGradeChanged)
+                    .collect(Collectors.toList());
+            if (!changedItems.isEmpty()) {
+                gradeWriter.write(changedItems);
+            }
+
+            if (fused) {
+                List<MemberGradeDto> pointItems = items.stream()
+                        .filter(item -> item.getMemberGradeId() != MemberGrade.WHITE.getId())
+                        .collect(Collectors.toList());
+                if (!pointItems.isEmpty()) {
+                    pointWriter.write(pointItems);
+                }
+            }
+        };
+    }
+
     /**
      * 데이터베이스에서 회원과 주문 데이터를 조회하고(by reader) 주문 금액에 따라 회원 데이터를 수정하여(by processor) 이를 데이터베이스에
      * 업데이트하는(writer) Step 입니다.
@@ -161,18 +282,93 @@ public class MemberGradeUpdateStep {
     @Bean
     @JobScope
     public Step updateMemberGradeStep() throws Exception {
+        AdaptiveChunkSizePolicy chunkSizePolicy = adaptiveChunkSizePolicyFactory.create(CHUNK_SIZE);
+
         return stepBuilderFactory.get("updateMemberGradeStep")
-                .<MemberGradeDto, MemberGradeDto>chunk(CHUNK_SIZE)
-                .reader(memberGradeDtoItemReader(null, null))
-                .processor(memberGradeDtoItemProcessor())
-                .writer(compositeItemWriter())
+                .<MemberGradeDto, MemberGradeDto>chunk(chunkSizePolicy)
+                .reader(memberGradeDtoItemReader(null, null, null, null, null))
+                .processor(memberGradeDtoItemProcessor(null))
+                .writer(memberGradeItemWriter(null))
                 .faultTolerant()
+                .listener((RetryListener) chunkSizePolicy)
                 .retry(DeadlockLoserDataAccessException.class)
                 .retryLimit(3)
                 .listener(memberGradeUpdateListener)
+                .listener((ChunkListener) chunkSizePolicy)
+                .build();
+    }
+
+    /**
+     * 회원 id 를 연속된 범위로 나누는 Partitioner 입니다.
+     *
+     * @return members.id 를 gridSize 개의 범위로 나누는 Partitioner
+     */
+    @Bean
+    public Partitioner memberIdRangePartitioner() {
+        return new MemberIdRangePartitioner(dataSource);
+    }
+
+    /**
+     * 파티션으로 나뉜 회원 등급 갱신 Step 을 실행할 TaskExecutor 입니다.
+     *
+     * @return poolSize 개의 스레드를 가진 TaskExecutor
+     */
+    @Bean
+    public TaskExecutor memberGradeTaskExecutor() {
+        ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+        taskExecutor.setCorePoolSize(poolSize);
+        taskExecutor.setMaxPoolSize(poolSize);
+        taskExecutor.setThreadNamePrefix("MEMBER-GRADE-");
+        taskExecutor.setWaitForTasksToCompleteOnShutdown(true);
+        taskExecutor.initialize();
+
+        return taskExecutor;
+    }
+
+    /**
+     * 회원 id 범위별로 updateMemberGradeStep 을 나누어 여러 스레드에서 실행하는 Step 입니다. 각 파티션의 진행 상황은 파티션 Step 의
+     * ExecutionContext 에 저장되므로 재시작 시 실패한 파티션만 다시 실행됩니다.
+     *
+     * @return gridSize 개의 파티션으로 updateMemberGradeStep 을 실행하는 Step
+     * @throws Exception
+     */
+    @Bean
+    @JobScope
+    public Step partitionUpdateMemberGradeStep() throws Exception {
+        return stepBuilderFactory.get("partitionUpdateMemberGradeStep")
+                .partitioner("updateMemberGradeStep", memberIdRangePartitioner())
+                .step(updateMemberGradeStep())
+                .gridSize(gridSize)
+                .taskExecutor(memberGradeTaskExecutor())
                 .build();
     }
 
+    /**
+     * 회원 테이블(m)과 회원별 순수 주문 금액 테이블(v)을 조인하는 from 절을 작성합니다. 월간 주문 금액 집계 테이블은 :year_month 파라미터로,
+     * 스테이징 테이블은 :job_instance_id 파라미터로 조인됩니다.
+     *
+     * @param source 순수 주문 금액을 읽어올 테이블
+     * @return 회원과 순수 주문 금액 테이블을 조인하는 from 절
+     */
+    public static String payAmountFromClause(MemberPayAmountSource source) {
+        if (source == MemberPayAmountSource.ROLLUP) {
+            return "members as m left join " + MemberMonthlySpendRollupStep.ROLLUP_TABLE
+                    + " as v on m.id = v.member_id and v.`year_month` = :year_month";
+        }
+        return "members as m left join " + MemberPayAmountStagingStep.STAGING_TABLE
+                + " as v on m.id = v.member_id and v.job_instance_id = :job_instance_id";
+    }
+
+    /**
+     * 회원별 순수 주문 금액 테이블(v)의 금액 컬럼을 반환합니다.
+     *
+     * @param source 순수 주문 금액을 읽어올 테이블
+     * @return 순수 주문 금액 컬럼
+     */
+    public static String payAmountColumn(MemberPayAmountSource source) {
+        return source == MemberPayAmountSource.ROLLUP ? "v.amount" : "v.pay_amount";
+    }
+
     public int getMemberGradeId(Long payAmount) {
         MemberGrade memberGrade = MemberGrade.PLATINUM;
 
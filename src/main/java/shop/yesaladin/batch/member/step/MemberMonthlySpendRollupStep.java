@@ -0,0 +1,123 @@
+package shop.yesaladin.batch.member.step;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import shop.yesaladin.batch.member.model.MemberMonthlySpendWatermark;
+
+/**
+ * 전날의 결제와 결제 취소 금액만 회원별 월간 주문 금액 집계 테이블(member_monthly_spend)에 누적하는 Batch Step 입니다.
+ * <p>
+ * 마지막으로 누적한 날짜는 {@link MemberMonthlySpendWatermark} 가 하루를 누적하는 트랜잭션에서 함께 갱신합니다. 다음 실행은 워터마크 다음
+ * 날부터 전날까지 누적하므로 실행되지 못한 날이 있어도 빠짐없이 누적되며, 같은 날을 누적하려는 실행이 겹치면 나중에 커밋하는 실행이 실패하여 같은
+ * 날이 두 번 더해지지 않습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+public class MemberMonthlySpendRollupStep {
+
+    public static final String ROLLUP_TABLE = "member_monthly_spend";
+    public static final String JOB_NAME = "rollupMemberMonthlySpendJob";
+    public static final String STEP_NAME = "rollupMemberMonthlySpendStep";
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final MemberMonthlySpendWatermark memberMonthlySpendWatermark;
+
+    /**
+     * 워터마크 다음 날부터 targetDate 까지 하루씩 결제와 결제 취소 금액을 집계 테이블에 누적합니다. 하루를 누적할 때마다 같은 트랜잭션에서
+     * 워터마크가 갱신되고 커밋됩니다.
+     *
+     * @param targetDate 누적할 마지막 날짜, 실행일의 전날
+     * @return 하루 단위로 집계 테이블을 갱신하는 tasklet
+     */
+    @Bean
+    @StepScope
+    public Tasklet rollupMemberMonthlySpendTasklet(
+            @Value("#{jobParameters['targetDate']}") String targetDate
+    ) {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        LocalDate lastDate = LocalDate.parse(targetDate);
+
+        return (contribution, chunkContext) -> {
+            LocalDate watermark = memberMonthlySpendWatermark.find()
+                    .orElseGet(() -> memberMonthlySpendWatermark.initialize(lastDate));
+
+            LocalDate date = watermark.plusDays(1);
+            if (date.isAfter(lastDate)) {
+                log.info("[{}] rolled up to {}", STEP_NAME, watermark);
+                return RepeatStatus.FINISHED;
+            }
+
+            memberMonthlySpendWatermark.advance(watermark, date);
+            int count = rollupPayments(jdbcTemplate, date) + rollupPaymentCancels(jdbcTemplate, date);
+            contribution.incrementWriteCount(count);
+
+            log.info("[{}] {} rolled up, {} rows", STEP_NAME, date, count);
+            return RepeatStatus.CONTINUABLE;
+        };
+    }
+
+    /**
+     * 전날까지의 결제와 결제 취소 금액을 회원별 월간 주문 금액 집계 테이블에 누적하는 Step 입니다.
+     *
+     * @return rollupMemberMonthlySpendTasklet 을 실행하는 Step
+     */
+    @Bean
+    @JobScope
+    public Step rollupMemberMonthlySpendStep() {
+        return stepBuilderFactory.get(STEP_NAME)
+                .tasklet(rollupMemberMonthlySpendTasklet(null))
+                .listener(memberMonthlySpendWatermark)
+                .build();
+    }
+
+    /**
+     * date 에 승인된 결제 금액을 승인월의 회원별 금액에 더합니다.
+     */
+    private int rollupPayments(JdbcTemplate jdbcTemplate, LocalDate date) {
+        return jdbcTemplate.update("INSERT INTO " + ROLLUP_TABLE + " (member_id, `year_month`, amount) "
+                        + "SELECT mo.member_id, ?, sum(p.total_amount) "
+                        + "FROM payments AS p JOIN member_orders AS mo ON p.order_id = mo.order_id "
+                        + "WHERE p.approved_datetime >= ? AND p.approved_datetime < ? "
+                        + "GROUP BY mo.member_id "
+                        + "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount)",
+                YearMonth.from(date).toString(),
+                date.toString(),
+                date.plusDays(1).toString()
+        );
+    }
+
+    /**
+     * date 에 발생한 결제 취소 금액을 원 결제의 승인월의 회원별 금액에서 뺍니다.
+     */
+    private int rollupPaymentCancels(JdbcTemplate jdbcTemplate, LocalDate date) {
+        return jdbcTemplate.update("INSERT INTO " + ROLLUP_TABLE + " (member_id, `year_month`, amount) "
+                        + "SELECT mo.member_id, date_format(p.approved_datetime, '%Y-%m') AS approved_month, "
+                        + "-sum(pc.cancel_amount) "
+                        + "FROM payment_cancels AS pc JOIN payments AS p ON pc.payment_id = p.id "
+                        + "JOIN member_orders AS mo ON p.order_id = mo.order_id "
+                        + "WHERE pc.canceled_datetime >= ? AND pc.canceled_datetime < ? "
+                        + "GROUP BY mo.member_id, approved_month "
+                        + "ON DUPLICATE KEY UPDATE amount = amount + VALUES(amount)",
+                date.toString(),
+                date.plusDays(1).toString()
+        );
+    }
+}
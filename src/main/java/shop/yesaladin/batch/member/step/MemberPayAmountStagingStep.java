@@ -0,0 +1,133 @@
+package shop.yesaladin.batch.member.step;
+
+import java.time.LocalDate;
+import javax.sql.DataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import shop.yesaladin.batch.member.model.MemberMonthlySpendWatermark;
+import shop.yesaladin.batch.member.model.MemberPayAmountSource;
+
+/**
+ * 조회 기간의 회원별 순수 주문 금액을 한 번만 집계하여 스테이징 테이블에 저장하는 Batch Step 입니다.
+ * <p>
+ * 회원 등급 갱신 Step 은 집계 쿼리를 페이지마다 다시 실행하지 않고 스테이징 테이블을 기본키 순서로 읽습니다. 스테이징 테이블은 Job 인스턴스
+ * id 로 구분되므로 동시에 실행된 Job 끼리 서로의 집계를 지우지 않으며, 재시작한 실행은 같은 Job 인스턴스의 집계를 다시 저장합니다. Job 이
+ * 시작할 때 {@link shop.yesaladin.batch.member.listener.MemberPayAmountStagingListener} 가 스테이징 테이블을 생성하고, Job 이 끝나면
+ * 해당 Job 인스턴스의 집계를 삭제합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+public class MemberPayAmountStagingStep {
+
+    public static final String STAGING_TABLE = "member_pay_amount_staging";
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final MemberMonthlySpendWatermark memberMonthlySpendWatermark;
+
+    /**
+     * 현재 Job 인스턴스의 집계를 지우고 조회 기간의 회원별 주문 금액에서 결제 취소 금액을 뺀 금액을 집계하여 저장합니다. 결제 취소 금액은 결제별로
+     * 먼저 합산하므로 여러 번 취소된 결제의 금액이 중복되지 않으며, 취소가 없는 결제는 결제 금액을 그대로 더합니다. 조회 기간에 승인된 결제의
+     * 취소는 조회 기간 이후에 취소된 것까지 모두 빼므로, 워터마크 날짜까지 발생한 취소만 빼는 ROLLUP 과 결과가 다를 수 있습니다.
+     * payAmountSource 파라미터가 ROLLUP 인 경우 스테이징 테이블에 저장하지 않고, 월간 주문 금액 집계 테이블이 조회 기간의 마지막 날까지
+     * 누적되었는지 확인합니다.
+     *
+     * @param payAmountSource 순수 주문 금액을 읽어올 테이블, 없는 경우 스테이징 테이블
+     * @param startDate       주문 조회 기간의 시작 날짜, 지난달 1일
+     * @param endDate         주문 조회 기간 마지막 날짜의 다음날, 이번달 1일
+     * @return 회원별 순수 주문 금액을 스테이징 테이블에 저장하는 tasklet
+     */
+    @Bean
+    @StepScope
+    public Tasklet stageMemberPayAmountTasklet(
+            @Value("#{jobParameters['payAmountSource']}") String payAmountSource,
+            @Value("#{jobParameters['startDate']}") String startDate,
+            @Value("#{jobParameters['endDate']}") String endDate
+    ) {
+        return (contribution, chunkContext) -> {
+            if (MemberPayAmountSource.from(payAmountSource) == MemberPayAmountSource.ROLLUP) {
+                checkRollupWatermark(endDate);
+                return RepeatStatus.FINISHED;
+            }
+
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            long jobInstanceId = chunkContext.getStepContext().getStepExecution().getJobExecution().getJobId();
+
+            jdbcTemplate.update("DELETE FROM " + STAGING_TABLE + " WHERE job_instance_id = ?", jobInstanceId);
+
+            int count = jdbcTemplate.update("INSERT INTO " + STAGING_TABLE + " (job_instance_id, member_id, pay_amount) "
+                            + "SELECT ?, mo.member_id, sum(p.total_amount - coalesce(pc.cancel_amount, 0)) "
+                            + "FROM payments AS p "
+                            + "JOIN member_orders AS mo ON p.order_id = mo.order_id "
+                            + "LEFT JOIN (SELECT c.payment_id, sum(c.cancel_amount) AS cancel_amount "
+                            + "FROM payment_cancels AS c JOIN payments AS cp ON c.payment_id = cp.id "
+                            + "WHERE cp.approved_datetime >= ? AND cp.approved_datetime < ? "
+                            + "GROUP BY c.payment_id) AS pc ON p.id = pc.payment_id "
+                            + "WHERE p.approved_datetime >= ? AND p.approved_datetime < ? "
+                            + "GROUP BY mo.member_id",
+                    jobInstanceId,
+                    startDate,
+                    endDate,
+                    startDate,
+                    endDate
+            );
+            contribution.incrementWriteCount(count);
+
+            log.info("[MemberPayAmountStagingStep] staged {} members ({} ~ {}), jobInstanceId = {}",
+                    count, startDate, endDate, jobInstanceId);
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * 회원별 순수 주문 금액을 스테이징 테이블에 저장하는 Step 입니다. Job 인스턴스의 집계는 Job 이 끝날 때 삭제되므로 재시작 시에도 항상 다시
+     * 실행합니다. ROLLUP 으로 읽는 경우를 위해 월간 주문 금액 집계 테이블과 워터마크 테이블이 없으면 Step 을 시작할 때 생성합니다.
+     *
+     * @return stageMemberPayAmountTasklet 을 실행하는 Step
+     */
+    @Bean
+    @JobScope
+    public Step stageMemberPayAmountStep() {
+        return stepBuilderFactory.get("stageMemberPayAmountStep")
+                .tasklet(stageMemberPayAmountTasklet(null, null, null))
+                .listener(memberMonthlySpendWatermark)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * 월간 주문 금액 집계 테이블이 조회 기간의 마지막 날까지 누적되었는지 확인합니다.
+     *
+     * @param endDate 주문 조회 기간 마지막 날짜의 다음날
+     * @throws IllegalStateException 집계 테이블이 조회 기간의 마지막 날까지 누적되지 않은 경우
+     */
+    private void checkRollupWatermark(String endDate) {
+        LocalDate lastDate = LocalDate.parse(endDate).minusDays(1);
+        LocalDate watermark = memberMonthlySpendWatermark.find()
+                .orElseThrow(() -> new IllegalStateException(
+                        MemberMonthlySpendRollupStep.ROLLUP_TABLE + " has never been rolled up, but "
+                                + lastDate + " is required."));
+
+        if (watermark.isBefore(lastDate)) {
+            throw new IllegalStateException(
+                    MemberMonthlySpendRollupStep.ROLLUP_TABLE + " is rolled up to " + watermark
+                            + ", but " + lastDate + " is required.");
+        }
+        log.info("[MemberPayAmountStagingStep] read pay amounts from {} (rolled up to {})",
+                MemberMonthlySpendRollupStep.ROLLUP_TABLE, watermark);
+    }
+}
@@ -1,23 +1,28 @@
 package shop.yesaladin.batch.member.step;
 
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import javax.sql.DataSource;
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
-import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.item.database.Order;
 import org.springframework.batch.item.database.PagingQueryProvider;
-import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.dao.DeadlockLoserDataAccessException;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
+import org.springframework.retry.RetryListener;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicy;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicyFactory;
+import shop.yesaladin.batch.common.paging.UniqueSortKeyValidator;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriter;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriterFactory;
 import shop.yesaladin.batch.member.dto.MemberPointDto;
 import shop.yesaladin.batch.member.listener.MemberPointUpdateListener;
 import shop.yesaladin.batch.member.model.MemberGrade;
@@ -34,7 +39,12 @@ public class MemberPointUpdateStep {
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
     private final MemberPointUpdateListener memberPointUpdateListener;
+    private final UniqueSortKeyValidator uniqueSortKeyValidator;
+    private final BulkInsertItemWriterFactory bulkInsertItemWriterFactory;
+    private final AdaptiveChunkSizePolicyFactory adaptiveChunkSizePolicyFactory;
     private static final int CHUNK_SIZE = 100;
+    public static final int GRADE_POINT_CODE_ID = 2;
+    public static final String POINT_HISTORY_TABLE = "point_histories";
     private final int minMemberGradeId = MemberGrade.WHITE.getId();
 
     /**
@@ -55,39 +65,57 @@ public class MemberPointUpdateStep {
     }
 
     /**
-     * 회원, 회원 등급 테이블을 조인하여 회원 정보와 등급별 지급 포인트를 page size 단위로 조회하는 쿼리를 작성합니다.
+     * 회원, 회원 등급 테이블을 조인하여 회원 정보와 등급별 지급 포인트를 page size 단위로 조회하는 쿼리를 작성합니다. 정렬 키는 회원 등급
+     * id 와 회원 id 로, 페이지 경계에서 회원이 누락되거나 중복되지 않습니다. reader 가 정렬 키 값을 컬럼 이름으로 읽으므로 회원 id 는 정렬
+     * 키 이름과 RowMapper 가 읽는 이름으로 모두 조회합니다.
      *
      * @return 지정된 데이터베이스 유형에 적합한 PagingQueryProvider 인스턴스
      * @throws Exception 데이터베이스 유형을 결정하지 못할 경우 예외
      */
     public PagingQueryProvider pagingQueryProvider() throws Exception {
         SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
-        Map<String, Order> sortKey = new HashMap<>(1);
+        Map<String, Order> sortKey = new LinkedHashMap<>(2);
         sortKey.put("m.member_grade_id", Order.ASCENDING);
+        sortKey.put("m.id", Order.ASCENDING);
         factoryBean.setDataSource(dataSource);
 
         factoryBean.setSelectClause(
-                "m.id as member_id, mg.base_given_point as member_grade_point");
+                "m.id, m.member_grade_id, m.id as member_id, mg.base_given_point as member_grade_point");
         factoryBean.setFromClause("members as m "
                 + "inner join member_grades as mg on m.member_grade_id = mg.id");
         factoryBean.setWhereClause("mg.id > " + minMemberGradeId);
-        factoryBean.setSortKeys(sortKey);
+        factoryBean.setSortKeys(uniqueSortKeyValidator.validate("members", "m", sortKey));
 
         return factoryBean.getObject();
     }
 
     /**
-     * 회원 등급에 맞는 지급 포인트 내역을 데이터베이스의 포인트 내역 테이블에 저장합니다.
+     * 회원 등급에 맞는 지급 포인트 내역을 데이터베이스의 포인트 내역 테이블에 chunk 단위로 한 번에 저장합니다.
      *
-     * @return 회원별 지급 포인트 내역을 삽입하는 sql 쿼리를 담은 writer
+     * @return 회원별 지급 포인트 내역을 삽입하는 writer
      */
-    public JdbcBatchItemWriter<MemberPointDto> insertPointHistoryItemWriter() {
-        return new JdbcBatchItemWriterBuilder<MemberPointDto>()
-                .dataSource(dataSource)
-                .sql("INSERT INTO point_histories "
-                        + "VALUES (null, :memberGradePoint, now(), :memberId, 2)")
-                .beanMapped()
-                .build();
+    public BulkInsertItemWriter<MemberPointDto> insertPointHistoryItemWriter() {
+        return bulkInsertItemWriterFactory.create(
+                POINT_HISTORY_TABLE,
+                item -> pointHistoryRow(item.getMemberGradePoint(), item.getMemberId())
+        );
+    }
+
+    /**
+     * 포인트 내역 테이블의 컬럼 순서로 등급별 지급 포인트 내역의 값을 작성합니다.
+     *
+     * @param memberGradePoint 등급별 지급 포인트
+     * @param memberId         포인트를 지급할 회원 id
+     * @return 포인트 내역 테이블에 삽입할 값 배열
+     */
+    public static Object[] pointHistoryRow(Long memberGradePoint, Long memberId) {
+        return new Object[]{
+                null,
+                memberGradePoint,
+                BulkInsertItemWriter.CURRENT_DATETIME,
+                memberId,
+                GRADE_POINT_CODE_ID
+        };
     }
 
     /**
@@ -99,15 +127,19 @@ public class MemberPointUpdateStep {
     @Bean
     @JobScope
     public Step updateMemberPointStep() throws Exception {
+        AdaptiveChunkSizePolicy chunkSizePolicy = adaptiveChunkSizePolicyFactory.create(CHUNK_SIZE);
+
         return stepBuilderFactory
                 .get("updateMemberPointStep")
-                .<MemberPointDto, MemberPointDto>chunk(CHUNK_SIZE)
+                .<MemberPointDto, MemberPointDto>chunk(chunkSizePolicy)
                 .reader(memberPointDtoItemReader())
                 .writer(insertPointHistoryItemWriter())
                 .faultTolerant()
+                .listener((RetryListener) chunkSizePolicy)
                 .retry(DeadlockLoserDataAccessException.class)
                 .retryLimit(3)
                 .listener(memberPointUpdateListener)
+                .listener((ChunkListener) chunkSizePolicy)
                 .build();
     }
 }
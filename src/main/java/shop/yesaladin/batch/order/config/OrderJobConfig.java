@@ -7,6 +7,8 @@ import org.springframework.batch.core.configuration.annotation.EnableBatchProces
 import org.springframework.batch.core.configuration.annotation.JobBuilderFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import shop.yesaladin.batch.order.decider.OrderAutoCancelScanModeDecider;
+import shop.yesaladin.batch.order.model.OrderAutoCancelScanMode;
 
 /**
  * Spring Batch Job 설정 입니다.
@@ -20,14 +22,20 @@ import org.springframework.context.annotation.Configuration;
 public class OrderJobConfig {
 
     private final JobBuilderFactory jobBuilderFactory;
+    private final Step syncOrderLatestStatusStep;
+    private final Step verifyOrderAutoCancelStep;
     private final Step insertOrderStatusChangeLogStep;
     private final Step notifyRenewalOfSubscriptionStep;
+    private final Step dispatchNotificationOutboxStep;
+    private final OrderAutoCancelScanModeDecider orderAutoCancelScanModeDecider;
 
     /**
      * 주문 상태 변경 이력 테이블에 기록된 가장 최근 상태가 주문(ORDER)인 채로 3일이 지난 주문을 대상으로,
      * 주문 상태 변경 이력 테이블에 취소(CANCEL) 상태를 추가 기록해주는 Step 을 수행하는 Job 입니다.
+     * 먼저 새 주문 상태 변경 이력을 주문 최근 상태 테이블에 반영하며, scanMode 파라미터가 VERIFY 인 경우 취소할 주문을 검증한 후
+     * 취소합니다.
      *
-     * @return insertOrderStatusChangeLogStep 을 실행하는 Job
+     * @return syncOrderLatestStatusStep, (verifyOrderAutoCancelStep), insertOrderStatusChangeLogStep 을 실행하는 Job
      * @author 이수정
      * @since 1.0
      */
@@ -35,14 +43,22 @@ public class OrderJobConfig {
     public Job insertOrderStatusChangeLogJob() {
         return jobBuilderFactory
                 .get("insertOrderStatusChangeLogJob")
-                .start(insertOrderStatusChangeLogStep)
+                .start(syncOrderLatestStatusStep)
+                .next(orderAutoCancelScanModeDecider)
+                .on(OrderAutoCancelScanMode.VERIFY.name())
+                .to(verifyOrderAutoCancelStep)
+                .next(insertOrderStatusChangeLogStep)
+                .from(orderAutoCancelScanModeDecider)
+                .on("*")
+                .to(insertOrderStatusChangeLogStep)
+                .end()
                 .build();
     }
 
     /**
-     * 구독이 만료되는 1달 전 부터 구독 갱신을 위한 알림을 보내는 Step 을 수행하는 Job 입니다.
+     * 구독이 만료되는 1달 전 부터 구독 갱신을 위한 알림을 알림 outbox 에 기록하는 Step 과, 기록된 알림을 보내는 Step 을 수행하는 Job 입니다.
      *
-     * @return notifyRenewalOfSubscriptionStep 을 실행하는 Job
+     * @return notifyRenewalOfSubscriptionStep, dispatchNotificationOutboxStep 을 실행하는 Job
      * @author 이수정
      * @since 1.0
      */
@@ -51,6 +67,22 @@ public class OrderJobConfig {
         return jobBuilderFactory
                 .get("notifyRenewalOfSubscriptionJob")
                 .start(notifyRenewalOfSubscriptionStep)
+                .next(dispatchNotificationOutboxStep)
+                .build();
+    }
+
+    /**
+     * 알림 outbox 에서 보내지 못해 다시 보낼 시점이 된 알림을 보내는 Step 을 수행하는 Job 입니다.
+     *
+     * @return dispatchNotificationOutboxStep 을 실행하는 Job
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    public Job dispatchNotificationOutboxJob() {
+        return jobBuilderFactory
+                .get("dispatchNotificationOutboxJob")
+                .start(dispatchNotificationOutboxStep)
                 .build();
     }
 
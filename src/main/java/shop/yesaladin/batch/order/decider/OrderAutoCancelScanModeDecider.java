@@ -0,0 +1,46 @@
+package shop.yesaladin.batch.order.decider;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.job.flow.FlowExecutionStatus;
+import org.springframework.batch.core.job.flow.JobExecutionDecider;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.order.model.OrderAutoCancelScanMode;
+
+/**
+ * insertOrderStatusChangeLogJob 의 scanMode 파라미터에 따라 취소할 주문을 검증하는 Step 을 실행할지 결정하는 Decider 입니다.
+ * <p>
+ * 파라미터가 없는 경우 {@link OrderAutoCancelScanMode#INCREMENTAL} 로 실행합니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Slf4j
+@Component
+public class OrderAutoCancelScanModeDecider implements JobExecutionDecider {
+
+    public static final String MODE_PARAMETER = "scanMode";
+
+    @Override
+    public FlowExecutionStatus decide(JobExecution jobExecution, StepExecution stepExecution) {
+        OrderAutoCancelScanMode scanMode = scanMode(jobExecution.getJobParameters()
+                .getString(MODE_PARAMETER, OrderAutoCancelScanMode.INCREMENTAL.name()));
+
+        log.info("[insertOrderStatusChangeLogJob] scanMode = {}", scanMode);
+        return new FlowExecutionStatus(scanMode.name());
+    }
+
+    /**
+     * scanMode 파라미터를 OrderAutoCancelScanMode 로 변환합니다.
+     *
+     * @param mode scanMode 파라미터, 없는 경우 null
+     * @return 취소할 주문을 조회하는 범위
+     */
+    public static OrderAutoCancelScanMode scanMode(String mode) {
+        if (mode == null) {
+            return OrderAutoCancelScanMode.INCREMENTAL;
+        }
+        return OrderAutoCancelScanMode.valueOf(mode.toUpperCase());
+    }
+}
@@ -17,9 +17,11 @@ import java.time.LocalDate;
 @NoArgsConstructor
 public class NotifyRenewalOfSubscriptionDto {
 
+    private Long orderProductId;
     private String title;
     private String loginId;
     private String name;
     private LocalDate nextRenewalDate;
     private int intervalMonth;
+    private String remainingDate;
 }
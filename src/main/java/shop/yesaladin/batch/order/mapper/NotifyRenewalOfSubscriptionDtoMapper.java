@@ -19,6 +19,7 @@ public class NotifyRenewalOfSubscriptionDtoMapper implements RowMapper<NotifyRen
     public NotifyRenewalOfSubscriptionDto mapRow(ResultSet rs, int rowNum) throws SQLException {
         NotifyRenewalOfSubscriptionDto notifyRenewalOfSubscriptionDto = new NotifyRenewalOfSubscriptionDto();
 
+        notifyRenewalOfSubscriptionDto.setOrderProductId(rs.getLong("id"));
         notifyRenewalOfSubscriptionDto.setTitle(rs.getString("title"));
         notifyRenewalOfSubscriptionDto.setLoginId(rs.getString("login_id"));
         notifyRenewalOfSubscriptionDto.setName(rs.getString("name"));
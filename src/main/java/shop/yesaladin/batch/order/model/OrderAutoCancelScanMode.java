@@ -0,0 +1,25 @@
+package shop.yesaladin.batch.order.model;
+
+/**
+ * 3일 지난 주문을 취소하는 Step 이 취소할 주문을 조회하는 범위입니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+public enum OrderAutoCancelScanMode {
+
+    /**
+     * 이전 실행이 마지막으로 취소를 마친 변경 일시 이후의 주문만 조회합니다.
+     */
+    INCREMENTAL,
+
+    /**
+     * 워터마크와 관계없이 3일 지난 모든 주문을 조회합니다.
+     */
+    FULL,
+
+    /**
+     * INCREMENTAL 로 조회할 주문이 주문 상태 변경 이력 전체를 조회한 결과와 같은지 먼저 검증한 후 INCREMENTAL 로 실행합니다.
+     */
+    VERIFY
+}
@@ -0,0 +1,87 @@
+package shop.yesaladin.batch.order.model;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.common.watermark.ExecutionContextWatermarkFinder;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 3일 지난 주문을 취소하는 Step 이 마지막으로 취소를 마친 변경 일시(워터마크)입니다.
+ * <p>
+ * insertOrderStatusChangeLogStep 이 완료되면 그 실행에서 조회한 변경 일시의 끝(threeDaysAgoDate 다음 날 0시)을 Step
+ * ExecutionContext 에 워터마크로 저장합니다. 그 이전에 변경된 주문 중 최근 상태가 주문(ORDER)인 주문은 모두 취소되었으므로, 다음 실행은
+ * 워터마크 이후에 변경된 주문만 조회합니다. Step 이 실패한 경우 워터마크는 저장되지 않으며 재시작한 실행은 같은 범위를 이어서 조회합니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class OrderAutoCancelWatermark implements StepExecutionListener {
+
+    public static final String JOB_NAME = "insertOrderStatusChangeLogJob";
+    public static final String STEP_NAME = "insertOrderStatusChangeLogStep";
+    public static final String WATERMARK_KEY = "lastCanceledChangedBefore";
+    public static final LocalDateTime FULL_SCAN_FROM = LocalDate.EPOCH.atStartOfDay();
+
+    private static final DateTimeFormatter WATERMARK_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final ExecutionContextWatermarkFinder watermarkFinder;
+
+    /**
+     * 취소할 주문을 조회할 변경 일시의 시작을 반환합니다. FULL 로 실행하거나 이전 실행의 워터마크가 없는 경우 모든 주문을 조회하도록
+     * FULL_SCAN_FROM 을 반환합니다.
+     *
+     * @param scanMode         취소할 주문을 조회하는 범위
+     * @param currentExecution 현재 실행 중인 JobExecution
+     * @return 조회할 변경 일시의 시작 (포함)
+     */
+    public LocalDateTime changedFrom(OrderAutoCancelScanMode scanMode, JobExecution currentExecution) {
+        if (scanMode == OrderAutoCancelScanMode.FULL) {
+            return FULL_SCAN_FROM;
+        }
+
+        return watermarkFinder.findLatest(JOB_NAME, STEP_NAME, WATERMARK_KEY, currentExecution)
+                .map(watermark -> LocalDateTime.parse(watermark, WATERMARK_FORMATTER))
+                .orElse(FULL_SCAN_FROM);
+    }
+
+    /**
+     * 취소할 주문을 조회할 변경 일시의 끝을 반환합니다. threeDaysAgoDate 당일에 변경된 주문까지 조회합니다.
+     *
+     * @param threeDaysAgoDate 기준이 되는 3일 전의 날짜
+     * @return 조회할 변경 일시의 끝 (포함하지 않음)
+     */
+    public static LocalDateTime changedBefore(String threeDaysAgoDate) {
+        return LocalDate.parse(threeDaysAgoDate).plusDays(1).atStartOfDay();
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        // 워터마크는 Step 이 완료된 후에만 저장합니다.
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (stepExecution.getStatus() != BatchStatus.COMPLETED) {
+            return null;
+        }
+
+        String threeDaysAgoDate = stepExecution.getJobParameters().getString("threeDaysAgoDate");
+        String watermark = changedBefore(threeDaysAgoDate).format(WATERMARK_FORMATTER);
+        stepExecution.getExecutionContext().putString(WATERMARK_KEY, watermark);
+
+        log.info("[{}] canceled orders changed before {}", STEP_NAME, watermark);
+        return null;
+    }
+}
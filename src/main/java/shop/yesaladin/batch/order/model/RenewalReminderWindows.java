@@ -0,0 +1,68 @@
+package shop.yesaladin.batch.order.model;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * 구독 갱신 알림을 보낼 시점(다음 갱신일까지 남은 기간)과 알림에 표시할 남은 기간입니다.
+ * <p>
+ * yesaladin.batch.renewal-notify.reminder-windows 에 "ISO-8601 기간=표시" 를 쉼표로 구분하여 설정합니다.
+ * 예를 들어 "P4W=1달,P1W=일주일,P1D=하루" 는 다음 갱신일이 4주, 1주, 1일 남은 구독에 알림을 보냅니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Component
+public class RenewalReminderWindows {
+
+    private final Map<Period, String> labels;
+
+    public RenewalReminderWindows(
+            @Value("${yesaladin.batch.renewal-notify.reminder-windows:P4W=1달,P1W=일주일,P1D=하루}") String windows
+    ) {
+        Map<Period, String> parsed = new LinkedHashMap<>();
+        for (String window : windows.split(",")) {
+            String[] periodAndLabel = window.trim().split("=", 2);
+            if (periodAndLabel.length != 2) {
+                throw new IllegalArgumentException("Invalid reminder window: " + window);
+            }
+            parsed.put(Period.parse(periodAndLabel[0].trim()), periodAndLabel[1].trim());
+        }
+        this.labels = Collections.unmodifiableMap(parsed);
+    }
+
+    /**
+     * baseDate 에 알림을 보낼 구독의 다음 갱신일 목록을 반환합니다.
+     *
+     * @param baseDate 알림을 보내는 날짜
+     * @return 다음 갱신일 목록
+     */
+    public List<LocalDate> nextRenewalDates(LocalDate baseDate) {
+        List<LocalDate> dates = new ArrayList<>(labels.size());
+        labels.keySet().forEach(period -> dates.add(baseDate.plus(period)));
+        return dates;
+    }
+
+    /**
+     * baseDate 에 보내는 알림에 표시할, 다음 갱신일까지 남은 기간을 반환합니다.
+     *
+     * @param baseDate        알림을 보내는 날짜
+     * @param nextRenewalDate 구독의 다음 갱신일
+     * @return 남은 기간의 표시, 알림을 보낼 시점이 아닌 경우 empty
+     */
+    public Optional<String> label(LocalDate baseDate, LocalDate nextRenewalDate) {
+        return labels.entrySet().stream()
+                .filter(entry -> baseDate.plus(entry.getKey()).equals(nextRenewalDate))
+                .map(Map.Entry::getValue)
+                .findFirst();
+    }
+}
@@ -0,0 +1,136 @@
+package shop.yesaladin.batch.order.projection;
+
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 주문별 가장 최근 상태를 기록하는 주문 최근 상태 테이블(order_latest_status)을 다루는 클래스입니다.
+ * <p>
+ * 주문 최근 상태 테이블은 주문 상태 변경 이력(order_status_change_logs)에서 변경 일시 구간 단위로 갱신됩니다. 같은 구간을 여러 번 반영해도
+ * 변경 일시가 더 늦은 상태만 반영하므로 결과가 같습니다. 변경 일시가 같은 이력이 여러 개인 경우 상태 코드 id 가 큰 상태를 최근 상태로 봅니다.
+ * 테이블은 애플리케이션을 시작할 때가 아니라, 이 클래스를 StepExecutionListener 로 등록한 Step 이 시작할 때 없는 경우 생성합니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Component
+public class OrderLatestStatusProjection implements StepExecutionListener {
+
+    public static final String LATEST_STATUS_TABLE = "order_latest_status";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrderLatestStatusProjection(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 주문 최근 상태 테이블이 없는 경우 생성합니다. 상태와 변경 일시로 주문을 조회할 수 있도록 (상태 코드 id, 변경 일시, 주문 id) 인덱스를
+     * 함께 생성합니다.
+     *
+     * @param stepExecution 시작하는 StepExecution
+     */
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + LATEST_STATUS_TABLE + " ("
+                + "order_id BIGINT NOT NULL, "
+                + "status_code_id INT NOT NULL, "
+                + "changed_at DATETIME NOT NULL, "
+                + "PRIMARY KEY (order_id), "
+                + "KEY ix_order_latest_status_status (status_code_id, changed_at, order_id))");
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        return null;
+    }
+
+    /**
+     * 변경 일시가 from 초과 to 이하인 주문 상태 변경 이력을 주문 최근 상태 테이블에 반영합니다. 주문 상태 변경 이력의 기본 키가 변경 일시로
+     * 시작하므로 구간 조회는 기본 키의 범위 탐색으로 실행됩니다.
+     *
+     * @param from 반영할 구간의 시작 (포함하지 않음)
+     * @param to   반영할 구간의 끝 (포함)
+     * @return 반영된 행의 수
+     */
+    public int sync(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.update("INSERT INTO " + LATEST_STATUS_TABLE + " (order_id, status_code_id, changed_at) "
+                        + "SELECT l.order_id, l.order_status_code_id, l.change_datetime "
+                        + "FROM order_status_change_logs AS l "
+                        + "WHERE l.change_datetime > ? AND l.change_datetime <= ? "
+                        + "ON DUPLICATE KEY UPDATE "
+                        + "status_code_id = IF(VALUES(changed_at) > changed_at "
+                        + "OR (VALUES(changed_at) = changed_at AND VALUES(status_code_id) > status_code_id), "
+                        + "VALUES(status_code_id), status_code_id), "
+                        + "changed_at = GREATEST(changed_at, VALUES(changed_at))",
+                from,
+                to
+        );
+    }
+
+    /**
+     * 주문 최근 상태 테이블에서 최근 상태가 주문(ORDER)이고 변경 일시가 from 이상 before 미만인 주문 id 를 조회합니다.
+     *
+     * @param from   조회할 구간의 시작 (포함)
+     * @param before 조회할 구간의 끝 (포함하지 않음)
+     * @return 취소할 주문 id 목록
+     */
+    public List<Long> findOrderedOrderIds(LocalDateTime from, LocalDateTime before) {
+        return jdbcTemplate.queryForList(
+                "SELECT s.order_id FROM " + LATEST_STATUS_TABLE + " AS s "
+                        + "WHERE s.status_code_id = (select id from order_status_codes where status = 'ORDER') "
+                        + "AND s.changed_at >= ? AND s.changed_at < ?",
+                Long.class,
+                from,
+                before
+        );
+    }
+
+    /**
+     * 주문 최근 상태 테이블을 거치지 않고, 주문 상태 변경 이력 전체에서 before 이전에 변경 이력이 있고 주문(ORDER) 외의 상태로 바뀐 적이
+     * 없는 주문 id 를 조회합니다. findOrderedOrderIds 의 결과를 검증하는 데 사용합니다.
+     *
+     * @param before 조회할 구간의 끝 (포함하지 않음)
+     * @return 취소할 주문 id 목록
+     */
+    public List<Long> findOrderedOrderIdsFromLogs(LocalDateTime before) {
+        return jdbcTemplate.queryForList(
+                "SELECT DISTINCT l.order_id FROM order_status_change_logs AS l "
+                        + "WHERE l.change_datetime < ? "
+                        + "AND NOT EXISTS (SELECT 1 FROM order_status_change_logs AS o "
+                        + "WHERE o.order_id = l.order_id "
+                        + "AND o.order_status_code_id != (select id from order_status_codes where status = 'ORDER'))",
+                Long.class,
+                before
+        );
+    }
+
+    /**
+     * 주문 상태 변경 이력 중 가장 이른 변경 일시를 조회합니다.
+     *
+     * @return 가장 이른 변경 일시, 이력이 없는 경우 empty
+     */
+    public Optional<LocalDateTime> findEarliestChangeDatetime() {
+        return Optional.ofNullable(jdbcTemplate.queryForObject(
+                "SELECT min(change_datetime) FROM order_status_change_logs",
+                LocalDateTime.class
+        ));
+    }
+
+    /**
+     * DB 의 현재 일시를 조회합니다. 배치 서버와 DB 의 시각 차이에 영향을 받지 않도록 반영할 구간의 끝은 DB 의 시각을 기준으로 정합니다.
+     *
+     * @return DB 의 현재 일시
+     */
+    public LocalDateTime currentDatetime() {
+        return jdbcTemplate.queryForObject("SELECT now()", LocalDateTime.class);
+    }
+}
@@ -0,0 +1,48 @@
+package shop.yesaladin.batch.order.scheduler;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
+import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+
+/**
+ * 알림 outbox 에서 다시 보낼 알림을 보내는 Job 의 스케줄러 입니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Component
+public class NotificationOutboxDispatchScheduler {
+
+    private final Job dispatchNotificationOutboxJob;
+    private final JobLauncher jobLauncher;
+
+    /**
+     * 설정된 주기(기본 10분)마다 dispatchNotificationOutboxJob 을 실행합니다.
+     */
+    @Scheduled(cron = "${yesaladin.batch.notification-outbox.dispatch-cron:0 */10 * * * *}", zone = "Asia/Seoul")
+    public void scheduleDispatchNotificationOutbox() {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addDate("currentTime", new Date())
+                .toJobParameters();
+
+        try {
+            jobLauncher.run(dispatchNotificationOutboxJob, jobParameters);
+        } catch (JobInstanceAlreadyCompleteException | JobExecutionAlreadyRunningException |
+                 JobParametersInvalidException | JobRestartException e) {
+            log.error(String.valueOf(e));
+        }
+    }
+}
@@ -10,6 +10,7 @@ import org.springframework.batch.core.launch.JobLauncher;
 import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
 import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteException;
 import org.springframework.batch.core.repository.JobRestartException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -33,6 +34,9 @@ public class OrderStatusChangeLogScheduler {
     private final JobLauncher jobLauncher;
     private static final String EVERY_MIDNIGHT = "0 0 0 * * *";
 
+    @Value("${yesaladin.batch.order-auto-cancel.scan-mode:INCREMENTAL}")
+    private String scanMode;
+
     @Scheduled(cron = EVERY_MIDNIGHT, zone = "Asia/Seoul")
     public void scheduleInsertOrderStatusChangeLog() {
         try {
@@ -43,6 +47,7 @@ public class OrderStatusChangeLogScheduler {
 
             JobParameters jobParameters = new JobParametersBuilder()
                     .addString("threeDaysAgoDate", threeDaysAgo.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                    .addString("scanMode", scanMode)
                     .addDate("currentTime", new Date())
                     .toJobParameters();
 
@@ -12,6 +12,7 @@ import org.springframework.batch.core.repository.JobInstanceAlreadyCompleteExcep
 import org.springframework.batch.core.repository.JobRestartException;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import shop.yesaladin.batch.order.model.RenewalReminderWindows;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -31,48 +32,29 @@ public class RenewalOfSubscriptionNotifyScheduler {
 
     private final Job notifyRenewalOfSubscriptionJob;
     private final JobLauncher jobLauncher;
+    private final RenewalReminderWindows renewalReminderWindows;
     private static final String EVERY_DAY = "0 0 10 * * *";
 
+    /**
+     * 매일 10시에 설정된 모든 알림 시점(1달, 일주일, 하루 등)의 구독을 한 번에 조회하여 알림을 보내는 notifyRenewalOfSubscriptionJob 을
+     * 실행합니다.
+     */
     @Scheduled(cron = EVERY_DAY, zone = "Asia/Seoul")
     public void scheduleRenewalOfSubscriptionNotify() {
-        try {
-            log.info("start time = {}", LocalDateTime.now());
+        LocalDate baseDate = LocalDate.now();
+        log.info("start time = {}", LocalDateTime.now());
+        log.info("nextRenewalDates = {}", renewalReminderWindows.nextRenewalDates(baseDate));
 
-            LocalDate oneMonthLater = LocalDate.now().plusWeeks(4);
-            LocalDate oneWeekLater = LocalDate.now().plusWeeks(1);
-            LocalDate oneDayLater = LocalDate.now().plusDays(1);
-            log.info("oneMonthLater = {}", oneMonthLater);
-            log.info("oneWeekLater = {}", oneWeekLater);
-            log.info("oneDayLater = {}", oneDayLater);
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("baseDate", baseDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .addDate("currentTime", new Date())
+                .toJobParameters();
 
-            notifyRenewalOfSubscription(oneMonthLater, "1달");
-            notifyRenewalOfSubscription(oneWeekLater, "일주일");
-            notifyRenewalOfSubscription(oneDayLater, "하루");
+        try {
+            jobLauncher.run(notifyRenewalOfSubscriptionJob, jobParameters);
         } catch (JobInstanceAlreadyCompleteException | JobExecutionAlreadyRunningException |
                  JobParametersInvalidException | JobRestartException e) {
             log.error(String.valueOf(e));
         }
     }
-
-    /**
-     * 1달, 일주일, 하루마다 notifyRenewalOfSubscriptionJob 을 실행합니다.
-     *
-     * @param nextRenewalDate remainingDate 후 만료 예정일이 될 날짜
-     * @param remainingDate   1달, 일주일, 하루
-     * @throws JobExecutionAlreadyRunningException
-     * @throws JobRestartException
-     * @throws JobInstanceAlreadyCompleteException
-     * @throws JobParametersInvalidException
-     */
-    private void notifyRenewalOfSubscription(LocalDate nextRenewalDate, String remainingDate)
-            throws JobExecutionAlreadyRunningException, JobRestartException,
-            JobInstanceAlreadyCompleteException, JobParametersInvalidException {
-        JobParameters jobParameters = new JobParametersBuilder()
-                .addString("nextRenewalDate", nextRenewalDate.format(DateTimeFormatter.ISO_LOCAL_DATE))
-                .addString("remainingDate", remainingDate)
-                .addDate("currentTime", new Date())
-                .toJobParameters();
-
-        jobLauncher.run(notifyRenewalOfSubscriptionJob, jobParameters);
-    }
 }
@@ -0,0 +1,162 @@
+package shop.yesaladin.batch.order.step;
+
+import com.nhn.dooray.client.DoorayHook;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.PagingQueryProvider;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import shop.yesaladin.batch.common.notification.DoorayMessageCoalescer;
+import shop.yesaladin.batch.common.notification.DoorayNotificationDispatcher;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutbox;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutboxDispatchWriter;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutboxDto;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutboxStatus;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 알림 outbox 에 기록된 보낼 시점이 된 알림을 보내고 전송 결과를 기록하는 Batch Step 입니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@RequiredArgsConstructor
+@Configuration
+public class NotificationOutboxDispatchStep {
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final DataSource dataSource;
+    private final NotificationOutbox notificationOutbox;
+    private final DoorayNotificationDispatcher doorayNotificationDispatcher;
+
+    private static final int CHUNK_SIZE = 100;
+
+    @Value("${yesaladin.batch.notification-outbox.coalesce:false}")
+    private boolean coalesce;
+
+    @Value("${yesaladin.batch.notification-outbox.coalesce-bot-name:구독 갱신 알림봇}")
+    private String coalesceBotName;
+
+    @Value("${yesaladin.batch.notification-outbox.coalesce-title:구독 갱신 알림}")
+    private String coalesceTitle;
+
+    @Value("${yesaladin.batch.notification-outbox.max-notices-per-message:50}")
+    private int maxNoticesPerMessage;
+
+    @Value("${yesaladin.batch.notification-outbox.max-message-bytes:16000}")
+    private int maxMessageBytes;
+
+    /**
+     * 알림 outbox 에서 보낼 시점이 된 PENDING 알림을 조회하고 (ItemReader), 선점한 알림을 보낸 후 결과를 기록합니다. (ItemWriter)
+     * 알림을 보내는 동안 DB 커넥션을 잡지 않도록 chunk 트랜잭션은 ResourcelessTransactionManager 로 실행하며, 페이지 조회와 선점,
+     * 결과 기록은 각각의 쿼리 단위로 커밋됩니다.
+     *
+     * @return 지정된 ItemReader, ItemWriter 를 가진 Step
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @JobScope
+    public Step dispatchNotificationOutboxStep() {
+        return stepBuilderFactory.get("dispatchNotificationOutboxStep")
+                .transactionManager(new ResourcelessTransactionManager())
+                .<NotificationOutboxDto, NotificationOutboxDto>chunk(CHUNK_SIZE)
+                .reader(notificationOutboxItemReader(null))
+                .writer(notificationOutboxDispatchWriter())
+                .listener((StepExecutionListener) notificationOutbox)
+                .build();
+    }
+
+    /**
+     * 보낼 시점이 된 PENDING 알림을 id 순으로 조회합니다. 읽은 알림의 상태가 Step 안에서 바뀌므로 읽은 위치는 저장하지 않고, 재시작하는
+     * 경우 PENDING 알림을 처음부터 다시 조회합니다.
+     *
+     * @param queryProvider 페이징 기반 ResultSet 을 탐색하는데 필요한 모든 기능을 제공하는 PagingQueryProvider
+     * @return 보낼 알림을 Paging 하여 조회하는 ItemReader
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @StepScope
+    public JdbcPagingItemReader<NotificationOutboxDto> notificationOutboxItemReader(
+            @Qualifier("notificationOutboxFactoryBean") PagingQueryProvider queryProvider
+    ) {
+        return new JdbcPagingItemReaderBuilder<NotificationOutboxDto>()
+                .name("notificationOutboxItemReader")
+                .dataSource(dataSource)
+                .queryProvider(queryProvider)
+                .parameterValues(Map.of("status", NotificationOutboxStatus.PENDING.name()))
+                .pageSize(CHUNK_SIZE)
+                .rowMapper(notificationOutbox.rowMapper())
+                .saveState(false)
+                .build();
+    }
+
+    /**
+     * 알림 outbox 에서 보낼 시점이 된 PENDING 알림을 조회하는 쿼리를 작성합니다. 정렬 키는 outbox 의 기본 키입니다.
+     *
+     * @param dataSource DB 의 유형을 결정하는 DataSource
+     * @return ItemReader 에서 사용할 적절한 PagingQueryProvider 구현체를 제공
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    public SqlPagingQueryProviderFactoryBean notificationOutboxFactoryBean(DataSource dataSource) {
+        SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
+
+        Map<String, Order> sortKeys = new LinkedHashMap<>();
+        sortKeys.put("id", Order.ASCENDING);
+
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setSelectClause("SELECT id, dedupe_key, bot_name, title, message, attempt_count ");
+        factoryBean.setFromClause("FROM " + NotificationOutbox.OUTBOX_TABLE + " ");
+        factoryBean.setWhereClause("WHERE status = :status AND next_attempt_datetime <= now()");
+        factoryBean.setSortKeys(sortKeys);
+
+        return factoryBean;
+    }
+
+    /**
+     * 알림을 보내고 결과를 알림 outbox 에 기록합니다.
+     * coalesce 가 true 인 경우 chunk 의 알림을 최대 maxNoticesPerMessage 개, maxMessageBytes 크기까지 attachment 로 묶어 보냅니다.
+     *
+     * @return 알림을 보내는 ItemWriter
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    public NotificationOutboxDispatchWriter notificationOutboxDispatchWriter() {
+        if (!coalesce) {
+            return new NotificationOutboxDispatchWriter(notificationOutbox, doorayNotificationDispatcher);
+        }
+
+        return new NotificationOutboxDispatchWriter(
+                notificationOutbox,
+                doorayNotificationDispatcher,
+                new DoorayMessageCoalescer<NotificationOutboxDto>(
+                        coalesceBotName,
+                        coalesceTitle,
+                        maxNoticesPerMessage,
+                        maxMessageBytes,
+                        notice -> DoorayHook.Attachment.builder()
+                                .title(notice.getTitle())
+                                .text(notice.getText())
+                                .build()
+                )
+        );
+    }
+}
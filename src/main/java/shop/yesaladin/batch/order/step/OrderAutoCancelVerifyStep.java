@@ -0,0 +1,112 @@
+package shop.yesaladin.batch.order.step;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import shop.yesaladin.batch.order.model.OrderAutoCancelScanMode;
+import shop.yesaladin.batch.order.model.OrderAutoCancelWatermark;
+import shop.yesaladin.batch.order.projection.OrderLatestStatusProjection;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 워터마크 이후의 주문 최근 상태만 조회하여 취소할 주문이, 주문 상태 변경 이력 전체를 조회하여 찾은 취소할 주문과 같은지 검증하는 Batch Step
+ * 입니다.
+ * <p>
+ * insertOrderStatusChangeLogJob 을 scanMode=VERIFY 로 실행한 경우 주문을 취소하기 전에 실행되며, 두 결과가 다르면 Step 이 실패하여
+ * 주문을 취소하지 않습니다. 두 결과의 주문 id 를 모두 메모리에 올려 비교하므로 테스트 데이터셋이나 검증용 DB 에서 실행합니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+public class OrderAutoCancelVerifyStep {
+
+    private static final int MAX_REPORTED_ORDERS = 20;
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final OrderLatestStatusProjection orderLatestStatusProjection;
+    private final OrderAutoCancelWatermark orderAutoCancelWatermark;
+
+    /**
+     * 워터마크 이후의 주문 최근 상태에서 조회한 취소할 주문과 주문 상태 변경 이력 전체에서 조회한 취소할 주문을 비교합니다.
+     *
+     * @param threeDaysAgoDate 기준이 되는 3일 전의 날짜
+     * @param stepExecution    이전 실행의 워터마크를 조회할 StepExecution
+     * @return 두 조회 결과를 비교하는 tasklet
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @StepScope
+    public Tasklet verifyOrderAutoCancelTasklet(
+            @Value("#{jobParameters['threeDaysAgoDate']}") String threeDaysAgoDate,
+            @Value("#{stepExecution}") StepExecution stepExecution
+    ) {
+        return (contribution, chunkContext) -> {
+            LocalDateTime changedFrom = orderAutoCancelWatermark.changedFrom(
+                    OrderAutoCancelScanMode.INCREMENTAL,
+                    stepExecution.getJobExecution()
+            );
+            LocalDateTime changedBefore = OrderAutoCancelWatermark.changedBefore(threeDaysAgoDate);
+
+            Set<Long> incremental = new HashSet<>(
+                    orderLatestStatusProjection.findOrderedOrderIds(changedFrom, changedBefore)
+            );
+            Set<Long> fullScan = new HashSet<>(orderLatestStatusProjection.findOrderedOrderIdsFromLogs(changedBefore));
+
+            List<Long> missing = difference(fullScan, incremental);
+            List<Long> unexpected = difference(incremental, fullScan);
+            log.info("[verifyOrderAutoCancelStep] changedFrom = {}, changedBefore = {}, incremental = {}, full scan = {}",
+                    changedFrom, changedBefore, incremental.size(), fullScan.size());
+
+            if (!missing.isEmpty() || !unexpected.isEmpty()) {
+                throw new IllegalStateException("Incremental auto-cancel differs from the full scan: "
+                        + "missing " + missing.size() + " " + sample(missing) + ", "
+                        + "unexpected " + unexpected.size() + " " + sample(unexpected));
+            }
+            return RepeatStatus.FINISHED;
+        };
+    }
+
+    /**
+     * 3일 지난 주문을 취소하기 전에 워터마크 이후만 조회한 결과를 전체 조회 결과와 비교하는 Step 입니다.
+     *
+     * @return verifyOrderAutoCancelTasklet 을 실행하는 Step
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @JobScope
+    public Step verifyOrderAutoCancelStep() {
+        return stepBuilderFactory.get("verifyOrderAutoCancelStep")
+                .tasklet(verifyOrderAutoCancelTasklet(null, null))
+                .build();
+    }
+
+    private List<Long> difference(Set<Long> from, Set<Long> exclude) {
+        return from.stream()
+                .filter(orderId -> !exclude.contains(orderId))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    private List<Long> sample(List<Long> orderIds) {
+        return orderIds.subList(0, Math.min(orderIds.size(), MAX_REPORTED_ORDERS));
+    }
+}
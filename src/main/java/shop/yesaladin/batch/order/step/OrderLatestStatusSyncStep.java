@@ -0,0 +1,148 @@
+package shop.yesaladin.batch.order.step;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.listener.ExecutionContextPromotionListener;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import shop.yesaladin.batch.common.watermark.ExecutionContextWatermarkFinder;
+import shop.yesaladin.batch.order.projection.OrderLatestStatusProjection;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * 주문 상태 변경 이력에서 마지막으로 반영한 변경 일시 이후의 이력만 주문 최근 상태 테이블(order_latest_status)에 반영하는 Batch Step 입니다.
+ * <p>
+ * 마지막으로 반영한 변경 일시는 워터마크로 Step ExecutionContext 에 구간 단위로 저장되며 Job ExecutionContext 로 승격됩니다. 처음 실행하는
+ * 경우 가장 이른 이력부터 구간 단위로 모든 이력을 반영합니다. 늦게 커밋된 이력을 놓치지 않도록 실행할 때마다 이전 워터마크보다
+ * overlapSeconds 만큼 앞에서부터 다시 반영합니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Slf4j
+@RequiredArgsConstructor
+@Configuration
+public class OrderLatestStatusSyncStep {
+
+    public static final String JOB_NAME = "insertOrderStatusChangeLogJob";
+    public static final String STEP_NAME = "syncOrderLatestStatusStep";
+    public static final String WATERMARK_KEY = "lastSyncedChangeDatetime";
+
+    private static final DateTimeFormatter WATERMARK_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+
+    private final StepBuilderFactory stepBuilderFactory;
+    private final OrderLatestStatusProjection orderLatestStatusProjection;
+    private final ExecutionContextWatermarkFinder watermarkFinder;
+
+    @Value("${yesaladin.batch.order-latest-status.sync-window-hours:24}")
+    private long syncWindowHours;
+
+    @Value("${yesaladin.batch.order-latest-status.overlap-seconds:300}")
+    private long overlapSeconds;
+
+    /**
+     * 워터마크 이후부터 Step 을 시작한 시점까지의 주문 상태 변경 이력을 syncWindowHours 구간씩 주문 최근 상태 테이블에 반영합니다. 한 구간을
+     * 반영할 때마다 트랜잭션이 커밋되고 워터마크가 갱신됩니다.
+     *
+     * @param stepExecution 워터마크를 저장할 StepExecution
+     * @return 구간 단위로 주문 최근 상태 테이블을 갱신하는 tasklet
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @StepScope
+    public Tasklet syncOrderLatestStatusTasklet(@Value("#{stepExecution}") StepExecution stepExecution) {
+        AtomicReference<LocalDateTime> upperBound = new AtomicReference<>();
+
+        return (contribution, chunkContext) -> {
+            ExecutionContext context = stepExecution.getExecutionContext();
+            LocalDateTime from;
+            if (Objects.isNull(upperBound.get())) {
+                upperBound.set(orderLatestStatusProjection.currentDatetime());
+                if (!context.containsKey(WATERMARK_KEY)) {
+                    context.putString(WATERMARK_KEY, findPreviousWatermark(stepExecution, upperBound.get()));
+                }
+                from = parse(context.getString(WATERMARK_KEY)).minusSeconds(overlapSeconds);
+            } else {
+                from = parse(context.getString(WATERMARK_KEY));
+            }
+
+            LocalDateTime to = from.plusHours(syncWindowHours);
+            if (to.isAfter(upperBound.get())) {
+                to = upperBound.get();
+            }
+            if (!from.isBefore(to)) {
+                log.info("[{}] synced to {}", STEP_NAME, context.getString(WATERMARK_KEY));
+                return RepeatStatus.FINISHED;
+            }
+
+            int count = orderLatestStatusProjection.sync(from, to);
+            contribution.incrementWriteCount(count);
+            if (to.isAfter(parse(context.getString(WATERMARK_KEY)))) {
+                context.putString(WATERMARK_KEY, to.format(WATERMARK_FORMATTER));
+            }
+
+            log.info("[{}] ({}, {}] synced, {} rows", STEP_NAME, from, to, count);
+            return RepeatStatus.CONTINUABLE;
+        };
+    }
+
+    /**
+     * 주문 상태 변경 이력의 새 이력을 주문 최근 상태 테이블에 반영하는 Step 입니다.
+     * <p>
+     * 주문 최근 상태 테이블이 없는 경우 Step 을 시작할 때 생성합니다.
+     *
+     * @return syncOrderLatestStatusTasklet 을 실행하고 워터마크를 Job ExecutionContext 로 승격하는 Step
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @JobScope
+    public Step syncOrderLatestStatusStep() {
+        ExecutionContextPromotionListener promotionListener = new ExecutionContextPromotionListener();
+        promotionListener.setKeys(new String[]{WATERMARK_KEY});
+
+        return stepBuilderFactory.get(STEP_NAME)
+                .tasklet(syncOrderLatestStatusTasklet(null))
+                .listener(orderLatestStatusProjection)
+                .listener(promotionListener)
+                .build();
+    }
+
+    /**
+     * 이전 실행의 워터마크를 조회합니다. 처음 실행하는 경우 가장 이른 이력부터 반영하도록 그 1초 전을 반환하며, 이력이 없는 경우 upperBound 를
+     * 반환합니다.
+     *
+     * @param stepExecution 현재 StepExecution
+     * @param upperBound    이번 실행에서 반영할 마지막 변경 일시
+     * @return 이미 반영된 마지막 변경 일시
+     */
+    private String findPreviousWatermark(StepExecution stepExecution, LocalDateTime upperBound) {
+        return watermarkFinder.findLatest(
+                JOB_NAME,
+                STEP_NAME,
+                WATERMARK_KEY,
+                stepExecution.getJobExecution()
+        ).orElseGet(() -> orderLatestStatusProjection.findEarliestChangeDatetime()
+                .map(earliest -> earliest.minusSeconds(1))
+                .orElse(upperBound)
+                .format(WATERMARK_FORMATTER));
+    }
+
+    private LocalDateTime parse(String watermark) {
+        return LocalDateTime.parse(watermark, WATERMARK_FORMATTER);
+    }
+}
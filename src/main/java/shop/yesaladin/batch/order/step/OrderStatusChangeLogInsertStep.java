@@ -1,32 +1,46 @@
 package shop.yesaladin.batch.order.step;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.database.JdbcBatchItemWriter;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.item.database.Order;
 import org.springframework.batch.item.database.PagingQueryProvider;
-import org.springframework.batch.item.database.builder.JdbcBatchItemWriterBuilder;
 import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
 import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.retry.RetryListener;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicy;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicyFactory;
+import shop.yesaladin.batch.common.paging.UniqueSortKeyValidator;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriter;
+import shop.yesaladin.batch.common.writer.BulkInsertItemWriterFactory;
+import shop.yesaladin.batch.order.decider.OrderAutoCancelScanModeDecider;
 import shop.yesaladin.batch.order.dto.OrderStatusChangeLogDto;
 import shop.yesaladin.batch.order.listener.OrderStatusChangeLogListener;
 import shop.yesaladin.batch.order.mapper.OrderStatusChangeLogDtoRowMapper;
+import shop.yesaladin.batch.order.model.OrderAutoCancelWatermark;
+import shop.yesaladin.batch.order.projection.OrderLatestStatusProjection;
 
 import javax.sql.DataSource;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
- * 주문 상태 변경 이력을 조회하여 주문(ORDER) 상태로 3일 지난 주문를 취소(CANCEL) 상태로 추가 기록하는 Batch Step 입니다.
+ * 주문 최근 상태를 조회하여 주문(ORDER) 상태로 3일 지난 주문를 취소(CANCEL) 상태로 추가 기록하는 Batch Step 입니다.
+ * 주문 최근 상태 테이블은 같은 Job 의 syncOrderLatestStatusStep 이 먼저 갱신합니다.
  *
  * @author 이수정
  * @since 1.0
@@ -38,12 +52,18 @@ public class OrderStatusChangeLogInsertStep {
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
     private final OrderStatusChangeLogListener listener;
+    private final UniqueSortKeyValidator uniqueSortKeyValidator;
+    private final BulkInsertItemWriterFactory bulkInsertItemWriterFactory;
+    private final AdaptiveChunkSizePolicyFactory adaptiveChunkSizePolicyFactory;
+    private final OrderLatestStatusProjection orderLatestStatusProjection;
+    private final OrderAutoCancelWatermark orderAutoCancelWatermark;
 
     private static final int CHUNK_SIZE = 100;
 
     /**
-     * DB 주문 상태 변경 이력에서 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하고 (ItemReader),
+     * DB 주문 최근 상태에서 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하고 (ItemReader),
      * 조회된 주문을 대상으로 취소(CANCEL) 상태 변경 이력을 추가 삽입합니다. (ItemWriter)
+     * Step 이 완료되면 취소를 마친 변경 일시를 워터마크로 저장합니다. 주문 최근 상태 테이블이 없는 경우 Step 을 시작할 때 생성합니다.
      *
      * @return 지정된 ItemReader, ItemWriter 를 가진 Step
      * @author 이수정
@@ -52,23 +72,33 @@ public class OrderStatusChangeLogInsertStep {
     @Bean
     @JobScope
     public Step insertOrderStatusChangeLogStep() {
+        AdaptiveChunkSizePolicy chunkSizePolicy = adaptiveChunkSizePolicyFactory.create(CHUNK_SIZE);
+
         return stepBuilderFactory.get("insertOrderStatusChangeLogStep")
-                .<OrderStatusChangeLogDto, OrderStatusChangeLogDto>chunk(CHUNK_SIZE)
-                .reader(orderStatusChangeLogItemReader(null, null))
+                .<OrderStatusChangeLogDto, OrderStatusChangeLogDto>chunk(chunkSizePolicy)
+                .reader(orderStatusChangeLogItemReader(null, null, null, null))
                 .writer(orderStatusChangeLogItemWriter(null))
                 .listener(listener)
                 .faultTolerant()
+                .listener((RetryListener) chunkSizePolicy)
                 .retry(Exception.class)
                 .noRetry(SQLException.class)
                 .retryLimit(3)
+                .listener((ChunkListener) chunkSizePolicy)
+                .listener((StepExecutionListener) orderLatestStatusProjection)
+                .listener((StepExecutionListener) orderAutoCancelWatermark)
                 .build();
     }
 
     /**
-     * 주문 상태 변경 이력에서 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하여 반환합니다.
+     * 주문 최근 상태 테이블에서 최근 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하여 반환합니다.
+     * scanMode 가 FULL 이 아니면 이전 실행이 취소를 마친 변경 일시 이후에 변경된 주문만 조회합니다.
+     * 정렬 키는 Step 이 시작되어 주문 최근 상태 테이블이 생성된 후 reader 를 만들 때 검증합니다.
      *
      * @param queryProvider    페이징 기반 ResultSet 을 탐색하는데 필요한 모든 기능을 제공하는 PagingQueryProvider
      * @param threeDaysAgoDate 기준이 되는 3일 전의 날짜
+     * @param scanMode         취소할 주문을 조회하는 범위
+     * @param stepExecution    이전 실행의 워터마크를 조회할 StepExecution
      * @return DB 에서 주문 정보를 Paging 하여 조회하는 ItemReader
      * @author 이수정
      * @since 1.0
@@ -77,10 +107,22 @@ public class OrderStatusChangeLogInsertStep {
     @StepScope
     public JdbcPagingItemReader<OrderStatusChangeLogDto> orderStatusChangeLogItemReader(
             @Qualifier("orderStatusChangeLogFactoryBean") PagingQueryProvider queryProvider,
-            @Value("#{jobParameters['threeDaysAgoDate']}") String threeDaysAgoDate
+            @Value("#{jobParameters['threeDaysAgoDate']}") String threeDaysAgoDate,
+            @Value("#{jobParameters['scanMode']}") String scanMode,
+            @Value("#{stepExecution}") StepExecution stepExecution
     ) {
-        Map<String, Object> parameterValues = new HashMap<>(1);
-        parameterValues.put("threeDaysAgoDate", threeDaysAgoDate);
+        Map<String, Object> parameterValues = new HashMap<>(2);
+        parameterValues.put("changedFrom", orderAutoCancelWatermark.changedFrom(
+                OrderAutoCancelScanModeDecider.scanMode(scanMode),
+                stepExecution.getJobExecution()
+        ));
+        parameterValues.put("changedBefore", OrderAutoCancelWatermark.changedBefore(threeDaysAgoDate));
+
+        uniqueSortKeyValidator.validate(
+                OrderLatestStatusProjection.LATEST_STATUS_TABLE,
+                "s",
+                queryProvider.getSortKeys()
+        );
 
         return new JdbcPagingItemReaderBuilder<OrderStatusChangeLogDto>()
                 .name("orderStatusChangeLogItemReader")
@@ -93,7 +135,9 @@ public class OrderStatusChangeLogInsertStep {
     }
 
     /**
-     * 주문 상태 변경 이력 테이블에서 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하는 쿼리를 작성합니다.
+     * 주문 최근 상태 테이블에서 최근 상태가 주문(ORDER)이고 3일 이상 지난 주문을 조회하는 쿼리를 작성합니다.
+     * 상태 코드 id 와 변경 일시로 (상태 코드 id, 변경 일시, 주문 id) 인덱스를 범위 탐색하며, 정렬 키는 변경 일시와 주문 최근 상태의 기본 키인
+     * 주문 id 입니다. reader 가 정렬 키 값을 컬럼 이름으로 읽으므로 변경 일시는 정렬 키 이름과 RowMapper 가 읽는 이름으로 모두 조회합니다.
      *
      * @param dataSource DB 의 유형을 결정하는 DataSource
      * @return ItemReader 에서 사용할 적절한 PagingQueryProvider 구현체를 제공
@@ -104,40 +148,47 @@ public class OrderStatusChangeLogInsertStep {
     public SqlPagingQueryProviderFactoryBean orderStatusChangeLogFactoryBean(DataSource dataSource) {
         SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
 
-        Map<String, Order> sortKeys = new HashMap<>();
-        sortKeys.put("l.change_datetime", Order.ASCENDING);
+        Map<String, Order> sortKeys = new LinkedHashMap<>();
+        sortKeys.put("s.changed_at", Order.ASCENDING);
+        sortKeys.put("s.order_id", Order.ASCENDING);
 
         factoryBean.setDataSource(dataSource);
 
-        factoryBean.setSelectClause("SELECT l.order_id, l.change_datetime, l.order_status_code_id ");
-        factoryBean.setFromClause("FROM order_status_change_logs AS l " +
-                "LEFT JOIN (" +
-                "SELECT o.order_id " +
-                "FROM order_status_change_logs AS o " +
-                "WHERE o.order_status_code_id != (select id from order_status_codes where status = 'ORDER') " +
-                "GROUP BY o.order_id) AS o ON l.order_id = o.order_id ");
-        factoryBean.setWhereClause("WHERE DATE(l.change_datetime) <= :threeDaysAgoDate AND o.order_id is null");
+        factoryBean.setSelectClause("SELECT s.order_id, s.changed_at, s.changed_at AS change_datetime, " +
+                "s.status_code_id AS order_status_code_id ");
+        factoryBean.setFromClause("FROM " + OrderLatestStatusProjection.LATEST_STATUS_TABLE + " AS s ");
+        factoryBean.setWhereClause("WHERE s.status_code_id = (select id from order_status_codes where status = 'ORDER') " +
+                "AND s.changed_at >= :changedFrom AND s.changed_at < :changedBefore");
         factoryBean.setSortKeys(sortKeys);
 
         return factoryBean;
     }
 
     /**
-     * 조회된 주문을 대상으로 취소(CANCEL) 상태 변경 이력을 삽입합니다.
+     * 조회된 주문을 대상으로 취소(CANCEL) 상태 변경 이력을 chunk 단위로 한 번에 삽입합니다.
+     * 취소(CANCEL) 상태 코드 id 는 Step 을 시작할 때 한 번만 조회합니다.
      *
      * @param dataSource DB 의 유형을 결정하는 DataSource
-     * @return 주문 상태 변경 이력을 삽입하는 쿼리를 담은 ItemWriter
+     * @return 주문 상태 변경 이력을 삽입하는 ItemWriter
      * @author 이수정
      * @since 1.0
      */
     @Bean
     @StepScope
-    public JdbcBatchItemWriter<OrderStatusChangeLogDto> orderStatusChangeLogItemWriter(DataSource dataSource) {
-        return new JdbcBatchItemWriterBuilder<OrderStatusChangeLogDto>()
-                .dataSource(dataSource)
-                .sql("INSERT INTO order_status_change_logs (change_datetime, order_id, order_status_code_id) " +
-                        "VALUES (now(), :orderId, (select id from order_status_codes where status = 'CANCEL'))")
-                .beanMapped()
-                .build();
+    public BulkInsertItemWriter<OrderStatusChangeLogDto> orderStatusChangeLogItemWriter(DataSource dataSource) {
+        Integer cancelStatusCodeId = new JdbcTemplate(dataSource).queryForObject(
+                "SELECT id FROM order_status_codes WHERE status = 'CANCEL'",
+                Integer.class
+        );
+
+        return bulkInsertItemWriterFactory.create(
+                "order_status_change_logs",
+                List.of("change_datetime", "order_id", "order_status_code_id"),
+                item -> new Object[]{
+                        BulkInsertItemWriter.CURRENT_DATETIME,
+                        item.getOrderId(),
+                        cancelStatusCodeId
+                }
+        );
     }
 }
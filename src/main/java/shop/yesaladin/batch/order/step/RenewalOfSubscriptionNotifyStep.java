@@ -1,14 +1,14 @@
 package shop.yesaladin.batch.order.step;
 
-import com.nhn.dooray.client.DoorayHook;
-import com.nhn.dooray.client.DoorayHookSender;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.JobScope;
 import org.springframework.batch.core.configuration.annotation.StepBuilderFactory;
 import org.springframework.batch.core.configuration.annotation.StepScope;
-import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.database.JdbcPagingItemReader;
 import org.springframework.batch.item.database.Order;
 import org.springframework.batch.item.database.PagingQueryProvider;
@@ -18,17 +18,28 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.client.RestTemplate;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicy;
+import shop.yesaladin.batch.common.chunk.AdaptiveChunkSizePolicyFactory;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutbox;
+import shop.yesaladin.batch.common.notification.outbox.NotificationOutboxDto;
+import shop.yesaladin.batch.common.paging.UniqueSortKeyValidator;
 import shop.yesaladin.batch.order.dto.NotifyRenewalOfSubscriptionDto;
 import shop.yesaladin.batch.order.listener.NotifyRenewalOfSubscriptionListener;
 import shop.yesaladin.batch.order.mapper.NotifyRenewalOfSubscriptionDtoMapper;
+import shop.yesaladin.batch.order.model.RenewalReminderWindows;
 
 import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
- * 구독이 만료되는 1달 전 부터 구독 갱신을 위한 알림을 보내는 Batch Step 입니다.
+ * 구독이 만료되는 1달 전 부터 구독 갱신을 위한 알림을 알림 outbox 에 기록하는 Batch Step 입니다.
+ * 기록된 알림은 NotificationOutboxDispatchStep 이 보냅니다.
  *
  * @author 이수정
  * @since 1.0
@@ -40,15 +51,19 @@ public class RenewalOfSubscriptionNotifyStep {
 
     private final StepBuilderFactory stepBuilderFactory;
     private final DataSource dataSource;
-    private final RestTemplate restTemplate;
+    private final NotificationOutbox notificationOutbox;
     private final NotifyRenewalOfSubscriptionListener listener;
+    private final RenewalReminderWindows renewalReminderWindows;
+    private final UniqueSortKeyValidator uniqueSortKeyValidator;
+    private final AdaptiveChunkSizePolicyFactory adaptiveChunkSizePolicyFactory;
 
-    private static final String DOORAY_HOOK_URL = "https://hook.dooray.com/services/3204376758577275363/3472093162960357708/YOuBRWeZSPWxAbv8s5kAZg";
     private static final int CHUNK_SIZE = 100;
+    private static final String BOT_NAME = "구독 갱신 알림봇";
 
     /**
-     * DB 정기 구독에서 다음 갱신일이 1달/ 1주일/ 하루 남은 정기구독, 정기구독자를 조회하고 (ItemReader),
-     * 조회된 정기구독자를 대상으로 알림을 보냅니다. (ItemWriter)
+     * DB 정기 구독에서 다음 갱신일이 설정된 알림 시점(1달/ 1주일/ 하루 등)만큼 남은 정기구독, 정기구독자를 한 번에 조회하고 (ItemReader),
+     * 남은 기간을 계산하여 알림을 작성하고 (ItemProcessor) 작성한 알림을 알림 outbox 에 한 번에 기록합니다. (ItemWriter)
+     * 느린 알림 전송은 이 Step 의 트랜잭션 밖에서 NotificationOutboxDispatchStep 이 수행합니다.
      *
      * @return 지정된 ItemReader, ItemWriter 를 가진 Step
      * @author 이수정
@@ -57,19 +72,24 @@ public class RenewalOfSubscriptionNotifyStep {
     @Bean
     @JobScope
     public Step notifyRenewalOfSubscriptionStep() {
+        AdaptiveChunkSizePolicy chunkSizePolicy = adaptiveChunkSizePolicyFactory.create(CHUNK_SIZE);
+
         return stepBuilderFactory.get("notifyRenewalOfSubscriptionStep")
-                .<NotifyRenewalOfSubscriptionDto, NotifyRenewalOfSubscriptionDto>chunk(CHUNK_SIZE)
+                .<NotifyRenewalOfSubscriptionDto, NotificationOutboxDto>chunk(chunkSizePolicy)
                 .reader(notifyRenewalOfSubscriptionItemReader(null, null))
-                .writer(notifyRenewalOfSubscriptionItemWriter(null))
+                .processor(notifyRenewalOfSubscriptionItemProcessor(null))
+                .writer(notificationOutbox.insertWriter())
                 .listener(listener)
+                .listener((ChunkListener) chunkSizePolicy)
+                .listener((StepExecutionListener) notificationOutbox)
                 .build();
     }
 
     /**
-     * 정기 구독 중 다음 갱신일이 remainingDate 만큼 남은 정기구독 책, 정기구독자 등을 조회하여 반환합니다.
+     * 정기 구독 중 다음 갱신일이 baseDate 로부터 알림 시점만큼 남은 정기구독 책, 정기구독자 등을 조회하여 반환합니다.
      *
-     * @param queryProvider   페이징 기반 ResultSet 을 탐색하는데 필요한 모든 기능을 제공하는 PagingQueryProvider
-     * @param nextRenewalDate 검색조건이 될 다음 구독 갱신일
+     * @param queryProvider 페이징 기반 ResultSet 을 탐색하는데 필요한 모든 기능을 제공하는 PagingQueryProvider
+     * @param baseDate      알림을 보내는 날짜
      * @return DB 에서 주문 정보를 Paging 하여 조회하는 ItemReader
      * @author 이수정
      * @since 1.0
@@ -78,10 +98,15 @@ public class RenewalOfSubscriptionNotifyStep {
     @StepScope
     public JdbcPagingItemReader<NotifyRenewalOfSubscriptionDto> notifyRenewalOfSubscriptionItemReader(
             @Qualifier("notifyRenewalOfSubscriptionFactoryBean") PagingQueryProvider queryProvider,
-            @Value("#{jobParameters['nextRenewalDate']}") String nextRenewalDate
+            @Value("#{jobParameters['baseDate']}") String baseDate
     ) {
+        List<String> nextRenewalDates = renewalReminderWindows.nextRenewalDates(LocalDate.parse(baseDate))
+                .stream()
+                .map(date -> date.format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .collect(Collectors.toList());
+
         Map<String, Object> parameterValues = new HashMap<>(1);
-        parameterValues.put("nextRenewalDate", nextRenewalDate);
+        parameterValues.put("nextRenewalDates", nextRenewalDates);
 
         return new JdbcPagingItemReaderBuilder<NotifyRenewalOfSubscriptionDto>()
                 .name("notifyRenewalOfSubscriptionItemReader")
@@ -94,7 +119,37 @@ public class RenewalOfSubscriptionNotifyStep {
     }
 
     /**
-     * 정기구독 관련 테이블에서 다음 갱신일이 remainingDate 만큼 남은 정기구독 책, 정기구독자 등을 조회하는 쿼리를 작성합니다.
+     * 조회된 정기 구독의 다음 갱신일까지 남은 기간(1달/ 1주일/ 하루 등)을 계산하여 알림을 작성합니다.
+     * 같은 날 같은 주문 상품의 같은 갱신일에 대한 알림은 dedupeKey 가 같으므로 Job 을 다시 실행해도 한 번만 기록됩니다.
+     *
+     * @param baseDate 알림을 보내는 날짜
+     * @return 알림 outbox 에 기록할 알림을 작성하는 ItemProcessor, 알림 시점이 아닌 구독은 제외합니다.
+     * @author 이수정
+     * @since 1.0
+     */
+    @Bean
+    @StepScope
+    public ItemProcessor<NotifyRenewalOfSubscriptionDto, NotificationOutboxDto> notifyRenewalOfSubscriptionItemProcessor(
+            @Value("#{jobParameters['baseDate']}") String baseDate
+    ) {
+        LocalDate date = LocalDate.parse(baseDate);
+
+        return item -> renewalReminderWindows.label(date, item.getNextRenewalDate())
+                .map(remainingDate -> {
+                    item.setRemainingDate(remainingDate);
+                    return NotificationOutboxDto.of(
+                            "renewal:" + item.getOrderProductId() + ":" + item.getNextRenewalDate() + ":" + baseDate,
+                            BOT_NAME,
+                            item.getName() + "(" + item.getLoginId() + ")",
+                            renewalMessage(item)
+                    );
+                })
+                .orElse(null);
+    }
+
+    /**
+     * 정기구독 관련 테이블에서 다음 갱신일이 알림을 보낼 날짜 중 하나인 정기구독 책, 정기구독자 등을 조회하는 쿼리를 작성합니다.
+     * 조회 결과는 주문 상품마다 한 행이므로 정렬 키는 구독 주기와 주문 상품 id 입니다.
      *
      * @param dataSource DB 의 유형을 결정하는 DataSource
      * @return ItemReader 에서 사용할 적절한 PagingQueryProvider 구현체를 제공
@@ -105,65 +160,36 @@ public class RenewalOfSubscriptionNotifyStep {
     public SqlPagingQueryProviderFactoryBean notifyRenewalOfSubscriptionFactoryBean(DataSource dataSource) {
         SqlPagingQueryProviderFactoryBean factoryBean = new SqlPagingQueryProviderFactoryBean();
 
-        Map<String, Order> sortKeys = new HashMap<>();
+        Map<String, Order> sortKeys = new LinkedHashMap<>();
         sortKeys.put("s.interval_month", Order.ASCENDING);
+        sortKeys.put("op.id", Order.ASCENDING);
 
         factoryBean.setDataSource(dataSource);
 
-        factoryBean.setSelectClause("SELECT p.title, m.login_id, m.name, s.next_renewal_date, s.interval_month ");
+        factoryBean.setSelectClause("SELECT p.title, m.login_id, m.name, s.next_renewal_date, s.interval_month, op.id ");
         factoryBean.setFromClause("FROM subscribes AS s " +
                 "INNER JOIN member_orders AS mo ON s.order_id = mo.order_id " +
                 "INNER JOIN members AS m ON mo.member_id = m.id " +
                 "INNER JOIN orders AS o ON mo.order_id = o.id " +
                 "INNER JOIN order_products AS op ON op.order_id = o.id " +
                 "INNER JOIN products AS p ON op.product_id = p.id ");
-        factoryBean.setWhereClause("WHERE s.next_renewal_date = :nextRenewalDate");
-        factoryBean.setSortKeys(sortKeys);
+        factoryBean.setWhereClause("WHERE s.next_renewal_date IN (:nextRenewalDates)");
+        factoryBean.setSortKeys(uniqueSortKeyValidator.validate("order_products", "op", sortKeys));
 
         return factoryBean;
     }
 
     /**
-     * 조회된 정기 구독 관련 정보를 바탕으로 정기구독자에게 알람을 보냅니다.
-     *
-     * @param remainingDate 남은 구독일 (1달/ 1주일/ 하루)
-     * @return 정기구독 알림을 보내는 ItemWriter
-     * @author 이수정
-     * @since 1.0
-     */
-    @Bean
-    @StepScope
-    public ItemWriter<NotifyRenewalOfSubscriptionDto> notifyRenewalOfSubscriptionItemWriter(
-            @Value("#{jobParameters['remainingDate']}") String remainingDate
-    ) {
-        return items -> {
-            for (NotifyRenewalOfSubscriptionDto item : items) {
-                String text = item.getName() + "(" + item.getLoginId() + ")님, 구독하신 상품 [" + item.getTitle() + "]의 구독갱신까지 "
-                        + remainingDate + " 남았습니다. " + item.getNextRenewalDate() + "에 구독(" + item.getIntervalMonth() + "개월)이 갱신됩니다.";
-
-                sendDoorayHook(text);
-            }
-        };
-    }
-
-    /**
-     * DoorayHookSender를 통해 구독 갱신 알림을 보내고, 예외발생 시 보내지 못한 담아 로그를 남깁니다.
+     * 정기구독자에게 보낼 구독 갱신 알림 메세지를 작성합니다.
      *
-     * @param text 알림메세지
+     * @param item 남은 구독일(1달/ 1주일/ 하루)이 계산된 정기 구독 정보
+     * @return 알림메세지
      * @author 이수정
      * @since 1.0
      */
-    private void sendDoorayHook(String text) {
-        try {
-            new DoorayHookSender(restTemplate, DOORAY_HOOK_URL)
-                    .send(DoorayHook.builder()
-                            .botName("구독 갱신 알림봇")
-                            .text(text)
-                            .build());
-            Thread.sleep(1000);
-        } catch (Exception e) {
-            log.error("Send Failed = " + text);
-        }
+    private static String renewalMessage(NotifyRenewalOfSubscriptionDto item) {
+        return item.getName() + "(" + item.getLoginId() + ")님, 구독하신 상품 [" + item.getTitle() + "]의 구독갱신까지 "
+                + item.getRemainingDate() + " 남았습니다. " + item.getNextRenewalDate() + "에 구독(" + item.getIntervalMonth() + "개월)이 갱신됩니다.";
     }
 
 }
@@ -0,0 +1,74 @@
+package shop.yesaladin.batch.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * HostCircuitBreaker 가 연속 실패로 열리고, 열린 후에는 시험 요청을 한 번만 허용하는지 확인하는 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class HostCircuitBreakerTest {
+
+    @Test
+    void opensAfterConsecutiveFailures() {
+        HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(2, 60_000);
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(2, 60_000);
+
+        circuitBreaker.onFailure();
+        circuitBreaker.onSuccess();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void allowsOneTrialAfterOpenMillis() {
+        HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(1, 0);
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        circuitBreaker.onSuccess();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void reopensWhenTheTrialFails() throws InterruptedException {
+        HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(1, 100);
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+
+        Thread.sleep(150);
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        circuitBreaker.onFailure();
+
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void releaseLetsTheNextRequestBecomeTheTrial() {
+        HostCircuitBreaker circuitBreaker = new HostCircuitBreaker(1, 0);
+        circuitBreaker.onFailure();
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+
+        circuitBreaker.release();
+
+        assertThat(circuitBreaker.tryAcquire()).isTrue();
+        assertThat(circuitBreaker.tryAcquire()).isFalse();
+    }
+}
@@ -0,0 +1,158 @@
+package shop.yesaladin.batch.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import shop.yesaladin.batch.config.ServerMetaConfig;
+
+/**
+ * HttpRetryInterceptor 의 재시도 조건, 재시도 예산과 circuit breaker 동작을 실제 요청 없이 확인하는 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class HttpRetryInterceptorTest {
+
+    private static final String DOORAY_HOOK_URL = "https://hook.dooray.com/services/1/2/token";
+    private static final String SHOP_URL = "http://shop.yesaladin.shop:8080/v1/coupons";
+
+    private final AtomicInteger attempts = new AtomicInteger();
+
+    @Test
+    void returnsDoorayTooManyRequestsAfterOneAttempt() throws IOException {
+        HttpRetryInterceptor interceptor = interceptor(3, 1.0, 10, 5, 30);
+
+        int status = interceptor.intercept(request(HttpMethod.POST, DOORAY_HOOK_URL), new byte[0],
+                respond(HttpStatus.TOO_MANY_REQUESTS)).getRawStatusCode();
+
+        assertThat(status).isEqualTo(429);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retriesShopTooManyRequestsUpToMaxAttempts() throws IOException {
+        HttpRetryInterceptor interceptor = interceptor(3, 1.0, 10, 5, 30);
+
+        int status = interceptor.intercept(request(HttpMethod.POST, SHOP_URL), new byte[0],
+                respond(HttpStatus.TOO_MANY_REQUESTS)).getRawStatusCode();
+
+        assertThat(status).isEqualTo(429);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryPostOnReadTimeout() {
+        HttpRetryInterceptor interceptor = interceptor(3, 1.0, 10, 5, 30);
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST, SHOP_URL), new byte[0],
+                fail(new SocketTimeoutException("Read timed out"))))
+                .isInstanceOf(SocketTimeoutException.class);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void retriesGetOnReadTimeout() {
+        HttpRetryInterceptor interceptor = interceptor(3, 1.0, 10, 5, 30);
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0],
+                fail(new SocketTimeoutException("Read timed out"))))
+                .isInstanceOf(SocketTimeoutException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void retriesPostOnConnectFailure() {
+        HttpRetryInterceptor interceptor = interceptor(3, 1.0, 10, 5, 30);
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.POST, SHOP_URL), new byte[0],
+                fail(new ConnectException("Connection refused"))))
+                .isInstanceOf(ConnectException.class);
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void stopsRetryingWhenTheRetryBudgetIsExhausted() throws IOException {
+        HttpRetryInterceptor interceptor = interceptor(3, 0.0, 1, 100, 30);
+
+        interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0], respond(HttpStatus.SERVICE_UNAVAILABLE));
+        assertThat(attempts).hasValue(2);
+
+        attempts.set(0);
+        int status = interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0],
+                respond(HttpStatus.SERVICE_UNAVAILABLE)).getRawStatusCode();
+        assertThat(status).isEqualTo(503);
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void failsFastWhileTheCircuitIsOpen() throws IOException {
+        HttpRetryInterceptor interceptor = interceptor(1, 1.0, 10, 2, 30);
+        interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0], respond(HttpStatus.BAD_GATEWAY));
+        interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0], respond(HttpStatus.BAD_GATEWAY));
+
+        attempts.set(0);
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0],
+                respond(HttpStatus.OK)))
+                .isInstanceOf(CircuitBreakerOpenException.class);
+        assertThat(attempts).hasValue(0);
+    }
+
+    @Test
+    void releasesTheTrialRequestWhenARequestAborts() throws IOException {
+        HttpRetryInterceptor interceptor = interceptor(1, 1.0, 10, 1, 0);
+        interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0], respond(HttpStatus.BAD_GATEWAY));
+
+        assertThatThrownBy(() -> interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0],
+                (request, body) -> {
+                    throw new IllegalStateException("aborted");
+                }))
+                .isInstanceOf(IllegalStateException.class);
+
+        int status = interceptor.intercept(request(HttpMethod.GET, SHOP_URL), new byte[0],
+                respond(HttpStatus.OK)).getRawStatusCode();
+        assertThat(status).isEqualTo(200);
+    }
+
+    private HttpRetryInterceptor interceptor(
+            int maxAttempts,
+            double budgetRatio,
+            int budgetMinRetries,
+            int failureThreshold,
+            long openSeconds
+    ) {
+        ServerMetaConfig serverMetaConfig = new ServerMetaConfig();
+        ReflectionTestUtils.setField(serverMetaConfig, "doorayHookUrl", DOORAY_HOOK_URL);
+        return new HttpRetryInterceptor(maxAttempts, 1, 1, budgetRatio, budgetMinRetries, 60,
+                failureThreshold, openSeconds, serverMetaConfig);
+    }
+
+    private MockClientHttpRequest request(HttpMethod method, String url) {
+        return new MockClientHttpRequest(method, URI.create(url));
+    }
+
+    private ClientHttpRequestExecution respond(HttpStatus status) {
+        return (request, body) -> {
+            attempts.incrementAndGet();
+            return new MockClientHttpResponse(new byte[0], status);
+        };
+    }
+
+    private ClientHttpRequestExecution fail(IOException e) {
+        return (request, body) -> {
+            attempts.incrementAndGet();
+            throw e;
+        };
+    }
+}
@@ -0,0 +1,51 @@
+package shop.yesaladin.batch.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * RetryBudget 이 호출 수에 비례한 재시도만 허용하고, window 가 지나면 다시 계산하는지 확인하는 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class RetryBudgetTest {
+
+    @Test
+    void allowsMinRetriesPlusRatioOfCalls() {
+        RetryBudget retryBudget = new RetryBudget(0.2, 2, 60_000);
+        for (int call = 0; call < 10; call++) {
+            retryBudget.recordCall();
+        }
+
+        int retries = 0;
+        while (retryBudget.tryAcquireRetry()) {
+            retries++;
+        }
+
+        assertThat(retries).isEqualTo(4);
+    }
+
+    @Test
+    void grantsMoreRetriesAsCallsIncrease() {
+        RetryBudget retryBudget = new RetryBudget(0.5, 0, 60_000);
+        retryBudget.recordCall();
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+
+        retryBudget.recordCall();
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+    }
+
+    @Test
+    void resetsAfterTheWindow() throws InterruptedException {
+        RetryBudget retryBudget = new RetryBudget(0.0, 1, 100);
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+        assertThat(retryBudget.tryAcquireRetry()).isFalse();
+
+        Thread.sleep(150);
+
+        assertThat(retryBudget.tryAcquireRetry()).isTrue();
+    }
+}
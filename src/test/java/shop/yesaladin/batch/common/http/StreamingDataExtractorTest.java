@@ -0,0 +1,88 @@
+package shop.yesaladin.batch.common.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import shop.yesaladin.batch.member.dto.MemberDto;
+
+/**
+ * StreamingDataExtractor 가 ResponseDto 형식 응답에서 data 배열의 원소만 전달하고, 형식이 잘못된 응답은 예외로 알리는지 확인하는
+ * 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class StreamingDataExtractorTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<Long> memberIds = new ArrayList<>();
+    private final StreamingDataExtractor<MemberDto> extractor = new StreamingDataExtractor<>(
+            objectMapper,
+            MemberDto.class,
+            member -> memberIds.add(member.getMemberId())
+    );
+
+    @Test
+    void passesOnlyDataElementsAndSkipsOtherFields() throws IOException {
+        int count = extract("{\"success\":true,\"status\":200,"
+                + "\"errorMessages\":[\"ignored\",{\"data\":[{\"memberId\":99}]}],"
+                + "\"data\":[{\"memberId\":1},{\"memberId\":2}],"
+                + "\"extra\":{\"data\":[{\"memberId\":100}]}}");
+
+        assertThat(count).isEqualTo(2);
+        assertThat(memberIds).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void readsAnEmptyDataArray() throws IOException {
+        assertThat(extract("{\"success\":true,\"data\":[]}")).isZero();
+        assertThat(memberIds).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "{\"data\":null}",
+            "{\"data\":{\"memberId\":1}}",
+            "{\"data\":\"members\"}",
+            "{\"success\":false,\"errorMessages\":[\"not found\"]}"
+    })
+    void skipsDataThatIsNotAnArray(String body) throws IOException {
+        assertThat(extract(body)).isZero();
+        assertThat(memberIds).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "[{\"memberId\":1}]",
+            "{\"data\":[1, 2]}",
+            "{\"data\":[{\"memberId\":1}, null]}",
+            "{\"data\":[{\"memberId\":1},",
+            "{\"data\":[{\"memberId\":\"one\"}]}",
+            "not json"
+    })
+    void failsOnMalformedResponses(String body) {
+        assertThatThrownBy(() -> extract(body)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void failsOnAnElementThatIsNotAnObject() {
+        assertThatThrownBy(() -> extract("{\"data\":[{\"memberId\":1},[2]]}"))
+                .isInstanceOf(JsonParseException.class);
+        assertThat(memberIds).containsExactly(1L);
+    }
+
+    private int extract(String body) throws IOException {
+        return extractor.extractData(new MockClientHttpResponse(body.getBytes(StandardCharsets.UTF_8), HttpStatus.OK));
+    }
+}
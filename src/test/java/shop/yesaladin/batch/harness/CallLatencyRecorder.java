@@ -0,0 +1,69 @@
+package shop.yesaladin.batch.harness;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * RestTemplate 호출의 지연 시간을 경로별로 기록하는 인터셉터입니다. 가장 바깥쪽 인터셉터로 등록하면 재시도를 포함한 호출 시간을
+ * 기록합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public class CallLatencyRecorder implements ClientHttpRequestInterceptor {
+
+    private final Map<String, ConcurrentLinkedQueue<Long>> latencies = new ConcurrentHashMap<>();
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        long startedAt = System.nanoTime();
+        try {
+            return execution.execute(request, body);
+        } finally {
+            latencies.computeIfAbsent(request.getURI().getPath(), key -> new ConcurrentLinkedQueue<>())
+                    .add(System.nanoTime() - startedAt);
+        }
+    }
+
+    /**
+     * 경로별 호출 수와 p50, p99 지연 시간을 한 줄씩 만듭니다.
+     *
+     * @return 경로별 호출 지연 시간 요약
+     */
+    public List<String> summary() {
+        List<String> lines = new ArrayList<>();
+        new TreeMap<>(latencies).forEach((path, values) -> {
+            List<Long> sorted = new ArrayList<>(values);
+            sorted.sort(null);
+            lines.add(String.format("%-24s calls=%d p50=%dms p99=%dms",
+                    path, sorted.size(), percentile(sorted, 0.50), percentile(sorted, 0.99)));
+        });
+        return lines;
+    }
+
+    public void clear() {
+        latencies.clear();
+    }
+
+    private long percentile(List<Long> sorted, double percentile) {
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return TimeUnit.NANOSECONDS.toMillis(sorted.get(Math.max(index, 0)));
+    }
+}
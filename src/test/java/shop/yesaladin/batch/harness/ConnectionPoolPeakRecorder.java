@@ -0,0 +1,69 @@
+package shop.yesaladin.batch.harness;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.sql.SQLException;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Job 을 실행하는 동안 Hikari 커넥션 풀에서 사용 중인 커넥션 수를 주기적으로 확인하여 최댓값을 기록합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public class ConnectionPoolPeakRecorder implements AutoCloseable {
+
+    private static final long SAMPLE_INTERVAL_MICROS = 500;
+
+    private final HikariDataSource dataSource;
+    private final AtomicInteger peak = new AtomicInteger();
+    private final ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "CONNECTION-POOL-SAMPLER");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ScheduledFuture<?> sampling;
+
+    public ConnectionPoolPeakRecorder(DataSource dataSource) throws SQLException {
+        this.dataSource = dataSource.unwrap(HikariDataSource.class);
+    }
+
+    /**
+     * 사용 중인 커넥션 수의 최댓값을 초기화하고 기록을 시작합니다.
+     */
+    public void start() {
+        peak.set(0);
+        sampling = sampler.scheduleAtFixedRate(this::sample, 0, SAMPLE_INTERVAL_MICROS, TimeUnit.MICROSECONDS);
+    }
+
+    /**
+     * 기록을 멈추고 기록하는 동안 사용 중이던 커넥션 수의 최댓값을 반환합니다.
+     *
+     * @return 사용 중이던 커넥션 수의 최댓값
+     */
+    public int stop() {
+        if (Objects.nonNull(sampling)) {
+            sampling.cancel(false);
+        }
+        sample();
+        return peak.get();
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    private void sample() {
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        if (Objects.nonNull(pool)) {
+            peak.accumulateAndGet(pool.getActiveConnections(), Math::max);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package shop.yesaladin.batch.harness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * 실제 Job 을 StubRemoteServer 에 대해 실행하여 처리량과 호출 지연 시간을 보고하는 부하 테스트입니다.
+ * <p>
+ * 배포 전에 처리량이 떨어지지 않았는지 확인하기 위한 것으로, -Dyesaladin.load-harness=true 로 실행한 경우에만 동작합니다. 스텁 서버의
+ * 응답 지연, 오류 비율과 응답 크기는 yesaladin.stub.* 시스템 프로퍼티로 바꿀 수 있습니다. 구독 갱신 알림 Job 은 DB 에 있는 정기 구독을
+ * 대상으로 실행되며 알림은 스텁 서버의 Dooray hook 으로 보냅니다.
+ * <p>
+ * 원격 호출만 하는 Step 이 호출하는 동안 DB 커넥션을 잡지 않는지 확인하기 위해 Job 을 실행하는 동안 사용 중인 커넥션 수의 최댓값도
+ * 검사합니다. 생일 쿠폰 Job 은 yesaladin.batch.birthday-coupon.thread-count 로 동시에 처리할 chunk 수를 바꿀 수 있으며, 회원마다
+ * 한 번씩만 쿠폰이 등록되었는지 함께 검사합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "yesaladin.load-harness", matches = "true")
+@SpringBootTest(properties = "spring.batch.job.enabled=false")
+class HttpLoadHarnessTest {
+
+    private static final StubRemoteServer.Options STUB_OPTIONS = StubRemoteServer.Options.fromSystemProperties();
+    private static final StubRemoteServer STUB = startStub();
+
+    @Autowired
+    private JobLauncher jobLauncher;
+
+    @Autowired
+    private Job giveBirthdayCouponJob;
+
+    @Autowired
+    private Job notifyRenewalOfSubscriptionJob;
+
+    @Autowired
+    private RestTemplate restTemplate;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${yesaladin.batch.birthday-coupon.thread-count:1}")
+    private int birthdayCouponThreadCount;
+
+    private final CallLatencyRecorder latencyRecorder = new CallLatencyRecorder();
+    private ConnectionPoolPeakRecorder connectionPoolPeakRecorder;
+    private List<ClientHttpRequestInterceptor> originalInterceptors;
+
+    @DynamicPropertySource
+    static void stubServerProperties(DynamicPropertyRegistry registry) {
+        registry.add("yesaladin.shop.url", STUB::getUrl);
+        registry.add("yesaladin.coupon.url", STUB::getUrl);
+        registry.add("yesaladin.dooray.hook-url", () -> STUB.getUrl() + StubRemoteServer.DOORAY_HOOK_PATH);
+    }
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connectionPoolPeakRecorder = new ConnectionPoolPeakRecorder(dataSource);
+        originalInterceptors = new ArrayList<>(restTemplate.getInterceptors());
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>(originalInterceptors);
+        interceptors.add(0, latencyRecorder);
+        restTemplate.setInterceptors(interceptors);
+    }
+
+    @AfterEach
+    void tearDown() {
+        restTemplate.setInterceptors(originalInterceptors);
+        latencyRecorder.clear();
+        connectionPoolPeakRecorder.close();
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void giveBirthdayCouponJob() throws Exception {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("laterDays", "7")
+                .addDate("currentDate", new Date())
+                .toJobParameters();
+
+        connectionPoolPeakRecorder.start();
+        JobExecution execution = jobLauncher.run(giveBirthdayCouponJob, jobParameters);
+        int peakConnections = connectionPoolPeakRecorder.stop();
+
+        report(execution, peakConnections);
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // 메타데이터 갱신에만 커넥션을 사용하므로 chunk 를 처리하는 스레드 수보다 많은 커넥션을 동시에 사용하지 않아야 합니다.
+        assertThat(peakConnections).isLessThanOrEqualTo(Math.max(birthdayCouponThreadCount, 1));
+        // 여러 chunk 를 동시에 등록해도 회원마다 한 번씩만 등록 요청을 보내야 합니다.
+        assertThat(STUB.getRegistrationCounts())
+                .hasSize((int) STUB_OPTIONS.getMemberCount())
+                .allSatisfy((memberId, count) -> assertThat(count).isEqualTo(1L));
+    }
+
+    @Test
+    void notifyRenewalOfSubscriptionJob() throws Exception {
+        JobParameters jobParameters = new JobParametersBuilder()
+                .addString("baseDate", LocalDate.now().format(DateTimeFormatter.ISO_LOCAL_DATE))
+                .addDate("currentTime", new Date())
+                .toJobParameters();
+
+        connectionPoolPeakRecorder.start();
+        JobExecution execution = jobLauncher.run(notifyRenewalOfSubscriptionJob, jobParameters);
+        int peakConnections = connectionPoolPeakRecorder.stop();
+
+        report(execution, peakConnections);
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        // 알림 기록 Step 의 chunk 트랜잭션과, 알림을 보내는 Step 의 쿼리 하나만 동시에 커넥션을 사용할 수 있습니다.
+        assertThat(peakConnections).isLessThanOrEqualTo(2);
+    }
+
+    private void report(JobExecution execution, int peakConnections) {
+        long written = execution.getStepExecutions().stream()
+                .mapToLong(StepExecution::getWriteCount)
+                .sum();
+        Duration elapsed = Duration.between(
+                execution.getStartTime().toInstant(),
+                execution.getEndTime().toInstant()
+        );
+        double itemsPerSecond = written * 1000.0 / Math.max(elapsed.toMillis(), 1);
+
+        log.info("[HttpLoadHarness] {} {} items in {}ms ({} items/s)",
+                execution.getJobInstance().getJobName(), written, elapsed.toMillis(),
+                String.format("%.1f", itemsPerSecond));
+        latencyRecorder.summary().forEach(line -> log.info("[HttpLoadHarness] {}", line));
+        log.info("[HttpLoadHarness] stub requests = {}", STUB.getRequestCounts());
+        log.info("[HttpLoadHarness] peak active connections = {}", peakConnections);
+    }
+
+    private static StubRemoteServer startStub() {
+        try {
+            return StubRemoteServer.start(STUB_OPTIONS);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start the stub server", e);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package shop.yesaladin.batch.harness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import shop.yesaladin.batch.member.dto.MemberCouponBulkRequestDto;
+import shop.yesaladin.batch.member.dto.MemberCouponRequestDto;
+
+/**
+ * 회원 쿠폰 등록 요청을 기존 형식(MemberCouponRequestDto 목록)과 압축된 일괄 요청 형식으로 직렬화할 때의 본문 크기와 직렬화 시간을
+ * 비교하는 벤치마크입니다.
+ * <p>
+ * 본문 크기는 항상 검사하며, 직렬화 시간은 로그로만 보고합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+class MemberCouponPayloadBenchmarkTest {
+
+    private static final int COUPON_COUNT = 2;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @ParameterizedTest
+    @ValueSource(ints = {100, 500, 2_000})
+    void compactPayloadIsSmallerThanPlainPayload(int memberCount) throws IOException {
+        List<MemberCouponRequestDto> items = memberCouponRequests(memberCount);
+
+        byte[] plain = plainPayload(items);
+        byte[] compact = compactPayload(items);
+
+        long plainNanos = measure(() -> plainPayload(items));
+        long compactNanos = measure(() -> compactPayload(items));
+        log.info("[MemberCouponPayloadBenchmark] members={} plain={}B {}us compact={}B {}us ratio={}",
+                memberCount,
+                plain.length,
+                plainNanos / 1_000,
+                compact.length,
+                compactNanos / 1_000,
+                String.format("%.3f", (double) compact.length / plain.length));
+
+        assertThat(compact.length).isLessThan(plain.length);
+    }
+
+    private List<MemberCouponRequestDto> memberCouponRequests(int memberCount) {
+        List<String> couponGroupCodes = new ArrayList<>();
+        for (int coupon = 0; coupon < COUPON_COUNT; coupon++) {
+            couponGroupCodes.add(UUID.randomUUID().toString());
+        }
+        LocalDate expirationDate = LocalDate.now().plusMonths(1);
+
+        List<MemberCouponRequestDto> items = new ArrayList<>(memberCount);
+        for (long memberId = 1; memberId <= memberCount; memberId++) {
+            MemberCouponRequestDto item = new MemberCouponRequestDto(memberId);
+            for (String couponGroupCode : couponGroupCodes) {
+                item.getCouponCodes().add(UUID.randomUUID().toString());
+                item.getCouponGroupCodes().add(couponGroupCode);
+                item.getExpirationDates().add(expirationDate);
+            }
+            items.add(item);
+        }
+        return items;
+    }
+
+    private byte[] plainPayload(List<MemberCouponRequestDto> items) throws IOException {
+        return objectMapper.writeValueAsBytes(items);
+    }
+
+    private byte[] compactPayload(List<MemberCouponRequestDto> items) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream body = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(body, MemberCouponBulkRequestDto.of(items));
+        }
+        return bytes.toByteArray();
+    }
+
+    private long measure(Payload payload) throws IOException {
+        for (int i = 0; i < ITERATIONS; i++) {
+            payload.create();
+        }
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            payload.create();
+        }
+        return (System.nanoTime() - started) / ITERATIONS;
+    }
+
+    @FunctionalInterface
+    private interface Payload {
+
+        byte[] create() throws IOException;
+    }
+}
@@ -0,0 +1,198 @@
+package shop.yesaladin.batch.harness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.PagingQueryProvider;
+import org.springframework.batch.item.database.support.SqlPagingQueryProviderFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import shop.yesaladin.batch.order.dto.OrderStatusChangeLogDto;
+import shop.yesaladin.batch.order.mapper.OrderStatusChangeLogDtoRowMapper;
+import shop.yesaladin.batch.order.projection.OrderLatestStatusProjection;
+import shop.yesaladin.batch.order.step.OrderStatusChangeLogInsertStep;
+
+/**
+ * 주문 최근 상태 reader 가 변경 일시 하나만 정렬 키로 사용할 때와 (변경 일시, 주문 id) 정렬 키를 사용할 때의 페이지 조회 시간과 읽은 주문
+ * 수를 MySQL 컨테이너에서 비교하는 벤치마크입니다.
+ * <p>
+ * 주문은 변경 일시가 세 개씩 같도록 만들어 페이지 경계에 같은 변경 일시가 걸리게 합니다. 두 방식 모두 OrderStatusChangeLogInsertStep 의
+ * 쿼리를 그대로 사용하고 정렬 키만 바꿉니다. 첫 페이지와 마지막 페이지들의 조회 시간은 로그로만 보고하며, 읽은 주문 수는 항상 검사합니다.
+ * <p>
+ * 데이터를 만드는 데 시간이 오래 걸리므로 -Dyesaladin.benchmark=true 로 실행한 경우에만 동작하며, Docker 를 사용할 수 없는 환경에서는
+ * 실행하지 않습니다. 주문 수는 yesaladin.benchmark.order-count 시스템 프로퍼티로 1,000,000 까지 바꿀 수 있으며 기본값은
+ * 300,000 입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "yesaladin.benchmark", matches = "true")
+@Testcontainers(disabledWithoutDocker = true)
+class PagingSortKeyBenchmarkTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.32");
+
+    private static final long ORDER_COUNT = Long.getLong("yesaladin.benchmark.order-count", 300_000);
+    private static final int PAGE_SIZE = 100;
+    private static final int DEEP_PAGES = 20;
+    private static final int ORDER_STATUS_CODE_ID = 1;
+    private static final int CANCEL_STATUS_CODE_ID = 2;
+    private static final LocalDateTime CHANGED_FROM = LocalDateTime.of(2023, 1, 1, 0, 0);
+
+    private static DriverManagerDataSource dataSource;
+    private static long orderedCount;
+
+    @BeforeAll
+    static void setUp() {
+        dataSource = new DriverManagerDataSource(MYSQL.getJdbcUrl(), MYSQL.getUsername(), MYSQL.getPassword());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE order_status_codes ("
+                + "id INT NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate.update("INSERT INTO order_status_codes (id, status) VALUES (?, 'ORDER'), (?, 'CANCEL')",
+                ORDER_STATUS_CODE_ID, CANCEL_STATUS_CODE_ID);
+        new OrderLatestStatusProjection(dataSource).beforeStep(null);
+
+        jdbcTemplate.execute("CREATE TABLE digits (d INT NOT NULL, PRIMARY KEY (d))");
+        jdbcTemplate.execute("INSERT INTO digits (d) VALUES (0), (1), (2), (3), (4), (5), (6), (7), (8), (9)");
+        jdbcTemplate.update("INSERT INTO " + OrderLatestStatusProjection.LATEST_STATUS_TABLE
+                        + " (order_id, status_code_id, changed_at) "
+                        + "SELECT n, IF(n % 10 = 0, ?, ?), ? + INTERVAL (n DIV 3) SECOND "
+                        + "FROM (SELECT 1 + d0.d + 10 * d1.d + 100 * d2.d + 1000 * d3.d + 10000 * d4.d "
+                        + "+ 100000 * d5.d AS n "
+                        + "FROM digits d0, digits d1, digits d2, digits d3, digits d4, digits d5) AS seq "
+                        + "WHERE n <= ?",
+                CANCEL_STATUS_CODE_ID,
+                ORDER_STATUS_CODE_ID,
+                CHANGED_FROM,
+                ORDER_COUNT);
+        jdbcTemplate.execute("ANALYZE TABLE " + OrderLatestStatusProjection.LATEST_STATUS_TABLE);
+
+        orderedCount = ORDER_COUNT - ORDER_COUNT / 10;
+    }
+
+    @Test
+    void comparesDeepPagesAndReadOrdersOfBothSortKeys() throws Exception {
+        Map<String, Order> changedAt = new HashMap<>(1);
+        changedAt.put("s.changed_at", Order.ASCENDING);
+
+        read(changedAt);
+        read(null);
+        Result single = read(changedAt);
+        Result composite = read(null);
+        log.info("[PagingSortKeyBenchmark] orders={} expected={} single={} composite={}",
+                ORDER_COUNT, orderedCount, single, composite);
+
+        assertThat(composite.getRows()).isEqualTo(orderedCount);
+        assertThat(composite.getDistinctRows()).isEqualTo(orderedCount);
+        assertThat(single.getDistinctRows()).isLessThan(orderedCount);
+    }
+
+    /**
+     * OrderStatusChangeLogInsertStep 의 쿼리로 주문 최근 상태를 끝까지 읽고 페이지별 조회 시간을 기록합니다.
+     *
+     * @param sortKeys 바꿀 정렬 키, null 이면 Step 의 정렬 키를 그대로 사용합니다
+     * @return 읽은 주문 수와 페이지 조회 시간
+     */
+    private Result read(Map<String, Order> sortKeys) throws Exception {
+        SqlPagingQueryProviderFactoryBean factoryBean = new OrderStatusChangeLogInsertStep(
+                null, null, null, null, null, null, null, null
+        ).orderStatusChangeLogFactoryBean(dataSource);
+        if (sortKeys != null) {
+            factoryBean.setSortKeys(sortKeys);
+        }
+        PagingQueryProvider queryProvider = factoryBean.getObject();
+
+        Map<String, Object> parameterValues = new HashMap<>(2);
+        parameterValues.put("changedFrom", CHANGED_FROM);
+        parameterValues.put("changedBefore", CHANGED_FROM.plusYears(1));
+
+        TimedPagingItemReader reader = new TimedPagingItemReader();
+        reader.setDataSource(dataSource);
+        reader.setQueryProvider(queryProvider);
+        reader.setParameterValues(parameterValues);
+        reader.setPageSize(PAGE_SIZE);
+        reader.setRowMapper(new OrderStatusChangeLogDtoRowMapper());
+        reader.setSaveState(false);
+        reader.afterPropertiesSet();
+        reader.open(new ExecutionContext());
+
+        long rows = 0;
+        Set<Long> orderIds = new HashSet<>();
+        long started = System.nanoTime();
+        OrderStatusChangeLogDto item;
+        while ((item = reader.read()) != null) {
+            rows++;
+            orderIds.add(item.getOrderId());
+        }
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        reader.close();
+
+        return new Result(queryProvider.getSortKeys().keySet().toString(), rows, orderIds.size(), elapsedMillis,
+                reader.getPageMicros());
+    }
+
+    /**
+     * 페이지를 조회할 때마다 조회 시간을 기록하는 JdbcPagingItemReader 입니다.
+     */
+    private static class TimedPagingItemReader extends JdbcPagingItemReader<OrderStatusChangeLogDto> {
+
+        @Getter
+        private final List<Long> pageMicros = new ArrayList<>();
+
+        @Override
+        protected void doReadPage() {
+            long started = System.nanoTime();
+            super.doReadPage();
+            pageMicros.add((System.nanoTime() - started) / 1_000);
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Result {
+
+        private final String sortKeys;
+        private final long rows;
+        private final long distinctRows;
+        private final long elapsedMillis;
+        private final List<Long> pageMicros;
+
+        @Override
+        public String toString() {
+            List<Long> deepPages = pageMicros.subList(Math.max(1, pageMicros.size() - DEEP_PAGES), pageMicros.size());
+            return String.format("{sortKeys=%s, rows=%d, distinct=%d, pages=%d, elapsed=%dms, "
+                            + "firstPage=%dus, deepPagesAvg=%dus, deepPagesMax=%dus}",
+                    sortKeys,
+                    rows,
+                    distinctRows,
+                    pageMicros.size(),
+                    elapsedMillis,
+                    pageMicros.get(0),
+                    (long) deepPages.stream().mapToLong(Long::longValue).average().orElse(0),
+                    deepPages.stream().mapToLong(Long::longValue).max().orElse(0));
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package shop.yesaladin.batch.harness;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
+import shop.yesaladin.batch.common.http.StreamingDataExtractor;
+import shop.yesaladin.batch.member.dto.MemberDto;
+import shop.yesaladin.common.dto.ResponseDto;
+
+/**
+ * 생일 회원 응답을 StreamingDataExtractor 로 읽을 때와 ParameterizedTypeReference 로 ResponseDto 목록 전체를 만들 때의 최대 힙
+ * 사용량, 읽는 스레드의 할당량과 GC 횟수를 비교하는 벤치마크입니다.
+ * <p>
+ * 응답 원소가 많아 시간이 오래 걸리므로 -Dyesaladin.benchmark=true 로 실행한 경우에만 동작합니다. 원소 수는
+ * yesaladin.stub.member-count 시스템 프로퍼티로 바꿀 수 있으며 기본값은 1,000,000 입니다. 스텁 서버가 같은 JVM 에서 응답 본문을 만들므로
+ * 최대 힙 사용량에는 두 방식 모두 응답 본문이 포함됩니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "yesaladin.benchmark", matches = "true")
+class StreamingDataExtractorBenchmarkTest {
+
+    private static final long MEMBER_COUNT = Long.getLong("yesaladin.stub.member-count", 1_000_000);
+
+    private final RestTemplate restTemplate = new RestTemplate();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void streamingUsesLessHeapThanBindingTheWholeResponse() throws IOException {
+        StubRemoteServer.Options options = StubRemoteServer.Options.builder()
+                .latencyMillis(0)
+                .latencyJitterMillis(0)
+                .memberCount(MEMBER_COUNT)
+                .build();
+
+        try (StubRemoteServer stub = StubRemoteServer.start(options)) {
+            String uriString = UriComponentsBuilder.fromHttpUrl(stub.getUrl())
+                    .pathSegment("v1", "members", "birthday")
+                    .queryParam("laterDays", 0)
+                    .queryParam("lastMemberId", 0)
+                    .queryParam("size", MEMBER_COUNT)
+                    .toUriString();
+
+            measure(() -> streaming(uriString));
+            measure(() -> typed(uriString));
+
+            Measurement streaming = measure(() -> streaming(uriString));
+            Measurement typed = measure(() -> typed(uriString));
+            log.info("[StreamingDataExtractorBenchmark] members={} streaming={} typed={}",
+                    MEMBER_COUNT, streaming, typed);
+
+            assertThat(streaming.getCount()).isEqualTo(MEMBER_COUNT);
+            assertThat(typed.getCount()).isEqualTo(MEMBER_COUNT);
+            assertThat(streaming.getPeakHeapBytes()).isLessThan(typed.getPeakHeapBytes());
+        }
+    }
+
+    private long streaming(String uriString) {
+        AtomicLong maxMemberId = new AtomicLong();
+        Integer count = restTemplate.execute(
+                uriString,
+                HttpMethod.GET,
+                request -> request.getHeaders().setAccept(List.of(MediaType.APPLICATION_JSON)),
+                new StreamingDataExtractor<>(objectMapper, MemberDto.class,
+                        member -> maxMemberId.accumulateAndGet(member.getMemberId(), Math::max))
+        );
+        return Objects.requireNonNull(count);
+    }
+
+    private long typed(String uriString) {
+        ResponseDto<List<MemberDto>> response = restTemplate.exchange(
+                uriString,
+                HttpMethod.GET,
+                null,
+                new ParameterizedTypeReference<ResponseDto<List<MemberDto>>>() {
+                }
+        ).getBody();
+        return Objects.requireNonNull(response).getData().size();
+    }
+
+    /**
+     * GC 후 힙 영역의 최대 사용량을 초기화하고 read 를 실행하여, 실행 중의 최대 힙 사용량, 현재 스레드의 할당량, GC 횟수와 시간을 측정합니다.
+     */
+    private Measurement measure(LongSupplier read) {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans();
+        heapPools.removeIf(pool -> pool.getType() != MemoryType.HEAP);
+        com.sun.management.ThreadMXBean threadMXBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long gcCount = gcCount();
+        long gcMillis = gcMillis();
+        long allocated = threadMXBean.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+
+        long count = read.getAsLong();
+
+        return new Measurement(
+                count,
+                (System.nanoTime() - started) / 1_000_000,
+                heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum(),
+                threadMXBean.getCurrentThreadAllocatedBytes() - allocated,
+                gcCount() - gcCount,
+                gcMillis() - gcMillis
+        );
+    }
+
+    private long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount)
+                .sum();
+    }
+
+    private long gcMillis() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime)
+                .sum();
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static class Measurement {
+
+        private final long count;
+        private final long elapsedMillis;
+        private final long peakHeapBytes;
+        private final long allocatedBytes;
+        private final long gcCount;
+        private final long gcMillis;
+
+        @Override
+        public String toString() {
+            return String.format("{elapsed=%dms, peakHeap=%dMB, allocated=%dMB, gc=%d (%dms)}",
+                    elapsedMillis, peakHeapBytes >> 20, allocatedBytes >> 20, gcCount, gcMillis);
+        }
+    }
+}
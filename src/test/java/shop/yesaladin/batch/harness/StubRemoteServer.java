@@ -0,0 +1,309 @@
+package shop.yesaladin.batch.harness;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Shop, Coupon 서버와 Dooray hook 을 흉내 내는 테스트용 HTTP 서버입니다.
+ * <p>
+ * 생일 회원 조회(/v1/members/birthday), 쿠폰 발행(/v1/issuances), 회원 쿠폰 등록(/v1/coupons, /v1/coupons/bulk)과 Dooray
+ * hook(/dooray/hook)에 응답하며, 응답 지연, 오류(503) 비율과 응답 원소의 크기를 설정할 수 있습니다. 회원 쿠폰 등록 요청은 같은 회원이
+ * 두 번 등록되지 않았는지 확인할 수 있도록 회원별 등록 횟수를 기록합니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+public class StubRemoteServer implements AutoCloseable {
+
+    public static final String DOORAY_HOOK_PATH = "/dooray/hook";
+
+    private final Options options;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, LongAdder> requestCounts = new ConcurrentHashMap<>();
+    private final Map<Long, LongAdder> registrationCounts = new ConcurrentHashMap<>();
+    private final String padding;
+
+    private StubRemoteServer(Options options) throws IOException {
+        this.options = options;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        this.executor = Executors.newFixedThreadPool(options.getServerThreads());
+        char[] chars = new char[options.getPaddingBytes()];
+        Arrays.fill(chars, 'x');
+        this.padding = new String(chars);
+
+        server.createContext("/v1/members/birthday", handler(this::birthdayMembers));
+        server.createContext("/v1/issuances", handler(this::issuances));
+        server.createContext("/v1/coupons", handler(this::memberCoupons));
+        server.createContext(DOORAY_HOOK_PATH, handler(this::emptyResponse));
+        server.setExecutor(executor);
+    }
+
+    /**
+     * 사용하지 않는 포트에서 서버를 시작합니다.
+     *
+     * @param options 응답 지연, 오류 비율, 응답 크기
+     * @return 시작된 서버
+     * @throws IOException 서버를 시작할 수 없는 경우
+     */
+    public static StubRemoteServer start(Options options) throws IOException {
+        StubRemoteServer stub = new StubRemoteServer(options);
+        stub.server.start();
+        return stub;
+    }
+
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * 경로별로 받은 요청 수를 반환합니다.
+     *
+     * @return 경로별 요청 수
+     */
+    public Map<String, Long> getRequestCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        requestCounts.forEach((path, count) -> counts.put(path, count.sum()));
+        return counts;
+    }
+
+    /**
+     * 회원 쿠폰 등록 요청에 성공적으로 응답한 회원별 등록 횟수를 반환합니다.
+     *
+     * @return 회원 id 별 등록 횟수
+     */
+    public Map<Long, Long> getRegistrationCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        registrationCounts.forEach((memberId, count) -> counts.put(memberId, count.sum()));
+        return counts;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * lastMemberId 다음 회원부터 size 명의 회원을 회원 id 오름차순으로 응답합니다. pagingIgnored 가 설정된 경우 두 파라미터를 무시하고
+     * 전체 회원을 정렬하지 않은 순서로 응답합니다.
+     */
+    private String birthdayMembers(HttpExchange exchange) {
+        if (options.isPagingIgnored()) {
+            return unpagedBirthdayMembers();
+        }
+
+        Map<String, String> query = query(exchange);
+        long lastMemberId = Long.parseLong(query.getOrDefault("lastMemberId", "0"));
+        int size = Integer.parseInt(query.getOrDefault("size", "100"));
+        long to = Math.min(lastMemberId + size, options.getMemberCount());
+
+        StringBuilder data = new StringBuilder("[");
+        for (long memberId = lastMemberId + 1; memberId <= to; memberId++) {
+            if (memberId > lastMemberId + 1) {
+                data.append(',');
+            }
+            data.append("{\"memberId\":").append(memberId).append(paddingField()).append('}');
+        }
+        return envelope(data.append(']').toString());
+    }
+
+    /**
+     * 페이지 파라미터를 지원하지 않는 Shop 서버처럼 전체 회원을 매번 같은 무작위 순서로 응답합니다.
+     */
+    private String unpagedBirthdayMembers() {
+        List<Long> memberIds = new ArrayList<>();
+        for (long memberId = 1; memberId <= options.getMemberCount(); memberId++) {
+            memberIds.add(memberId);
+        }
+        Collections.shuffle(memberIds, new Random(options.getMemberCount()));
+
+        StringBuilder data = new StringBuilder("[");
+        for (Long memberId : memberIds) {
+            if (data.length() > 1) {
+                data.append(',');
+            }
+            data.append("{\"memberId\":").append(memberId).append(paddingField()).append('}');
+        }
+        return envelope(data.append(']').toString());
+    }
+
+    /**
+     * 요청한 수량만큼 쿠폰 코드를 만든 couponCount 개의 쿠폰을 응답합니다.
+     */
+    private String issuances(HttpExchange exchange) throws IOException {
+        JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+        int quantity = request.path("quantity").asInt();
+        String expirationDate = LocalDate.now().plusMonths(1).toString();
+
+        StringBuilder data = new StringBuilder("[");
+        for (int coupon = 0; coupon < options.getCouponCount(); coupon++) {
+            if (coupon > 0) {
+                data.append(',');
+            }
+            data.append("{\"couponGroupCode\":\"").append(UUID.randomUUID())
+                    .append("\",\"expirationDate\":\"").append(expirationDate)
+                    .append("\",\"createdCouponCodes\":[");
+            for (int code = 0; code < quantity; code++) {
+                if (code > 0) {
+                    data.append(',');
+                }
+                data.append('"').append(UUID.randomUUID()).append('"');
+            }
+            data.append(']').append(paddingField()).append('}');
+        }
+        return envelope(data.append(']').toString());
+    }
+
+    /**
+     * 회원 쿠폰 등록 요청 본문의 회원 id 마다 등록 횟수를 셉니다. 일괄 요청 형식은 gzip 으로 압축된 본문도 읽습니다.
+     */
+    private String memberCoupons(HttpExchange exchange) throws IOException {
+        boolean gzip = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream body = gzip
+                ? new GZIPInputStream(exchange.getRequestBody())
+                : exchange.getRequestBody()) {
+            for (JsonNode memberId : objectMapper.readTree(body).findValues("memberId")) {
+                registrationCounts.computeIfAbsent(memberId.asLong(), key -> new LongAdder()).increment();
+            }
+        }
+        return envelope("null");
+    }
+
+    private String emptyResponse(HttpExchange exchange) throws IOException {
+        boolean gzip = "gzip".equalsIgnoreCase(exchange.getRequestHeaders().getFirst("Content-Encoding"));
+        try (InputStream body = gzip
+                ? new GZIPInputStream(exchange.getRequestBody())
+                : exchange.getRequestBody()) {
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        return envelope("null");
+    }
+
+    private HttpHandler handler(StubResponse response) {
+        return exchange -> {
+            try (exchange) {
+                requestCounts.computeIfAbsent(exchange.getHttpContext().getPath(), key -> new LongAdder())
+                        .increment();
+                delay();
+
+                if (ThreadLocalRandom.current().nextDouble() < options.getErrorRate()) {
+                    exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+                    exchange.sendResponseHeaders(503, -1);
+                    return;
+                }
+
+                byte[] body = response.create(exchange).getBytes(StandardCharsets.UTF_8);
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, body.length);
+                exchange.getResponseBody().write(body);
+            }
+        };
+    }
+
+    private void delay() {
+        long millis = options.getLatencyMillis();
+        if (options.getLatencyJitterMillis() > 0) {
+            millis += ThreadLocalRandom.current().nextLong(options.getLatencyJitterMillis() + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private String envelope(String data) {
+        return "{\"success\":true,\"status\":200,\"data\":" + data + ",\"errorMessages\":null}";
+    }
+
+    private String paddingField() {
+        return padding.isEmpty() ? "" : ",\"padding\":\"" + padding + "\"";
+    }
+
+    private Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            String[] keyValue = pair.split("=", 2);
+            query.put(keyValue[0], keyValue.length > 1 ? keyValue[1] : "");
+        }
+        return query;
+    }
+
+    @FunctionalInterface
+    private interface StubResponse {
+
+        String create(HttpExchange exchange) throws IOException;
+    }
+
+    /**
+     * 테스트용 서버의 응답 지연, 오류 비율, 응답 크기와 생일 회원 페이지 파라미터 지원 여부 설정입니다. fromSystemProperties 는 yesaladin.stub.* 시스템 프로퍼티로 기본값을
+     * 바꿉니다.
+     */
+    @Getter
+    @Builder
+    public static class Options {
+
+        @Builder.Default
+        private final long latencyMillis = 20;
+        @Builder.Default
+        private final long latencyJitterMillis = 10;
+        @Builder.Default
+        private final double errorRate = 0.0;
+        @Builder.Default
+        private final long memberCount = 10_000;
+        @Builder.Default
+        private final int couponCount = 2;
+        @Builder.Default
+        private final int paddingBytes = 0;
+        @Builder.Default
+        private final int serverThreads = 32;
+        @Builder.Default
+        private final boolean pagingIgnored = false;
+
+        public static Options fromSystemProperties() {
+            return Options.builder()
+                    .latencyMillis(Long.getLong("yesaladin.stub.latency-millis", 20))
+                    .latencyJitterMillis(Long.getLong("yesaladin.stub.latency-jitter-millis", 10))
+                    .errorRate(Double.parseDouble(System.getProperty("yesaladin.stub.error-rate", "0.0")))
+                    .memberCount(Long.getLong("yesaladin.stub.member-count", 10_000))
+                    .couponCount(Integer.getInteger("yesaladin.stub.coupon-count", 2))
+                    .paddingBytes(Integer.getInteger("yesaladin.stub.padding-bytes", 0))
+                    .serverThreads(Integer.getInteger("yesaladin.stub.server-threads", 32))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package shop.yesaladin.batch.member.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.web.client.RestTemplate;
+import shop.yesaladin.batch.harness.StubRemoteServer;
+import shop.yesaladin.batch.member.dto.MemberCouponRequestDto;
+import shop.yesaladin.batch.member.dto.MemberDto;
+
+/**
+ * BirthdayMemberChunkTracker 가 chunk 마다 연속된 회원을 읽게 하고, 앞선 chunk 가 모두 완료된 위치와 그 이후에 완료된 회원을 저장하여
+ * 재시작할 때 완료된 회원을 다시 읽지 않는지 StubRemoteServer 로 확인하는 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class BirthdayMemberChunkTrackerTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    private StubRemoteServer stub;
+    private BirthdayMemberChunkTracker tracker;
+    private ItemStreamReader<MemberDto> reader;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        stub = StubRemoteServer.start(StubRemoteServer.Options.builder()
+                .latencyMillis(0)
+                .latencyJitterMillis(0)
+                .memberCount(30)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    void savesThePositionBeforeTheFirstUnfinishedChunk() throws Exception {
+        open(new ExecutionContext());
+        List<MemberDto> first = readChunk(10);
+        List<MemberDto> second = readChunk(10);
+
+        tracker.afterWrite(requests(second));
+        ExecutionContext executionContext = update();
+        assertThat(executionContext.getLong(BirthdayMemberItemReader.LAST_MEMBER_ID_KEY)).isZero();
+        assertThat(executionContext.getString(BirthdayMemberChunkTracker.COMPLETED_RANGES_KEY)).isEqualTo("11-20");
+
+        tracker.afterWrite(requests(first));
+        executionContext = update();
+        assertThat(executionContext.getLong(BirthdayMemberItemReader.LAST_MEMBER_ID_KEY)).isEqualTo(20L);
+        assertThat(executionContext.getString(BirthdayMemberChunkTracker.COMPLETED_RANGES_KEY)).isEmpty();
+    }
+
+    @Test
+    void restartSkipsMembersOfChunksCompletedAfterTheSavedPosition() throws Exception {
+        open(new ExecutionContext());
+        readChunk(10);
+        tracker.afterWrite(requests(readChunk(10)));
+        ExecutionContext executionContext = update();
+
+        open(executionContext);
+        List<Long> memberIds = new ArrayList<>();
+        for (MemberDto member : readChunk(30)) {
+            memberIds.add(member.getMemberId());
+        }
+
+        assertThat(memberIds).hasSize(20).doesNotContain(11L, 20L).contains(1L, 10L, 21L, 30L);
+    }
+
+    @Test
+    void savesMembersCompletedOneByOneInAnUnfinishedChunk() throws Exception {
+        open(new ExecutionContext());
+        List<MemberDto> chunk = readChunk(10);
+
+        tracker.afterWrite(requests(chunk.subList(0, 1)));
+        tracker.onSkipInWrite(new MemberCouponRequestDto(2L), new IllegalStateException("skipped"));
+        tracker.onSkipInProcess(chunk.get(2), new IllegalStateException("skipped"));
+        tracker.afterProcess(chunk.get(3), null);
+        ExecutionContext executionContext = update();
+
+        assertThat(executionContext.getLong(BirthdayMemberItemReader.LAST_MEMBER_ID_KEY)).isZero();
+        assertThat(executionContext.getString(BirthdayMemberChunkTracker.COMPLETED_RANGES_KEY))
+                .isEqualTo("1-1,2-2,3-3,4-4");
+
+        open(executionContext);
+        assertThat(reader.read().getMemberId()).isEqualTo(5L);
+    }
+
+    @Test
+    void savesMembersCompletedAfterTheLastUpdateWhenTheStepEnds() throws Exception {
+        open(new ExecutionContext());
+        List<MemberDto> chunk = readChunk(10);
+        update();
+
+        tracker.afterWrite(requests(chunk.subList(0, 1)));
+        StepExecution stepExecution = new StepExecution("giveBirthdayCouponStep", new JobExecution(1L));
+        assertThat(tracker.afterStep(stepExecution)).isNull();
+
+        ExecutionContext executionContext = stepExecution.getExecutionContext();
+        assertThat(executionContext.getString(BirthdayMemberChunkTracker.COMPLETED_RANGES_KEY)).isEqualTo("1-1");
+        open(executionContext);
+        assertThat(reader.read().getMemberId()).isEqualTo(2L);
+    }
+
+    @Test
+    void anotherThreadReadsOnlyAfterTheChunkStartsProcessing() throws Exception {
+        open(new ExecutionContext());
+        List<MemberDto> first = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            first.add(reader.read());
+        }
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CompletableFuture<Long> other = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return reader.read().getMemberId();
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }, executor);
+
+            Thread.sleep(100);
+            assertThat(other).isNotDone();
+            first.add(reader.read());
+
+            tracker.beforeProcess(first.get(0));
+            assertThat(other.get(1, TimeUnit.SECONDS)).isEqualTo(7L);
+            assertThat(first).extracting(MemberDto::getMemberId).containsExactly(1L, 2L, 3L, 4L, 5L, 6L);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void open(ExecutionContext executionContext) {
+        tracker = new BirthdayMemberChunkTracker();
+        reader = tracker.track(new BirthdayMemberItemReader(
+                new RestTemplate(),
+                new ObjectMapper(),
+                stub.getUrl(),
+                7,
+                PAGE_SIZE
+        ));
+        reader.open(executionContext);
+    }
+
+    /**
+     * Step 이 chunk 를 읽고 처리를 시작하는 것처럼 size 명까지 읽은 후 읽기 잠금을 놓습니다.
+     */
+    private List<MemberDto> readChunk(int size) throws Exception {
+        List<MemberDto> members = new ArrayList<>();
+        MemberDto member;
+        while (members.size() < size && (member = reader.read()) != null) {
+            members.add(member);
+        }
+        tracker.afterChunk(null);
+        return members;
+    }
+
+    private ExecutionContext update() {
+        ExecutionContext executionContext = new ExecutionContext();
+        reader.update(executionContext);
+        return executionContext;
+    }
+
+    private List<MemberCouponRequestDto> requests(List<MemberDto> members) {
+        List<MemberCouponRequestDto> requests = new ArrayList<>();
+        for (MemberDto member : members) {
+            requests.add(new MemberCouponRequestDto(member.getMemberId()));
+        }
+        return requests;
+    }
+}
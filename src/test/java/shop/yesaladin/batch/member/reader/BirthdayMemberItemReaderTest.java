@@ -0,0 +1,128 @@
+package shop.yesaladin.batch.member.reader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.web.client.RestTemplate;
+import shop.yesaladin.batch.harness.StubRemoteServer;
+import shop.yesaladin.batch.member.dto.MemberDto;
+
+/**
+ * BirthdayMemberItemReader 가 생일인 회원 수와 관계없이 한 페이지만 메모리에 유지하는지 StubRemoteServer 로 확인하는 테스트입니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+class BirthdayMemberItemReaderTest {
+
+    private static final int PAGE_SIZE = 500;
+
+    @ParameterizedTest
+    @ValueSource(longs = {1_000, 10_000, 100_000})
+    void readsEveryMemberOnceWithOnlyOnePageBuffered(long memberCount) throws IOException {
+        StubRemoteServer.Options options = StubRemoteServer.Options.builder()
+                .latencyMillis(0)
+                .latencyJitterMillis(0)
+                .memberCount(memberCount)
+                .build();
+
+        try (StubRemoteServer stub = StubRemoteServer.start(options)) {
+            BirthdayMemberItemReader reader = new BirthdayMemberItemReader(
+                    new RestTemplate(),
+                    new ObjectMapper(),
+                    stub.getUrl(),
+                    7,
+                    PAGE_SIZE
+            );
+            List<Integer> pageSizes = new ArrayList<>();
+            reader.setPageListener((count, lastPage) -> pageSizes.add(count));
+            reader.open(new ExecutionContext());
+
+            long expectedMemberId = 1;
+            MemberDto member;
+            while ((member = reader.read()) != null) {
+                assertThat(member.getMemberId()).isEqualTo(expectedMemberId++);
+            }
+            reader.close();
+
+            assertThat(expectedMemberId - 1).isEqualTo(memberCount);
+            assertThat(pageSizes).allSatisfy(size -> assertThat(size).isLessThanOrEqualTo(PAGE_SIZE));
+            assertThat(stub.getRequestCounts().get("/v1/members/birthday"))
+                    .isEqualTo(memberCount / PAGE_SIZE + 1);
+        }
+    }
+
+    @Test
+    void resumesAfterTheLastSavedMember() throws IOException {
+        StubRemoteServer.Options options = StubRemoteServer.Options.builder()
+                .latencyMillis(0)
+                .latencyJitterMillis(0)
+                .memberCount(1_250)
+                .build();
+
+        try (StubRemoteServer stub = StubRemoteServer.start(options)) {
+            ExecutionContext executionContext = new ExecutionContext();
+            BirthdayMemberItemReader reader = new BirthdayMemberItemReader(
+                    new RestTemplate(),
+                    new ObjectMapper(),
+                    stub.getUrl(),
+                    7,
+                    PAGE_SIZE
+            );
+            reader.open(executionContext);
+            for (int i = 0; i < 600; i++) {
+                reader.read();
+            }
+            reader.update(executionContext);
+            reader.close();
+
+            reader.open(executionContext);
+            assertThat(reader.read().getMemberId()).isEqualTo(601L);
+            reader.close();
+        }
+    }
+
+    @Test
+    void readsEveryMemberOnceWhenTheShopServerIgnoresPagingAndOrder() throws IOException {
+        StubRemoteServer.Options options = StubRemoteServer.Options.builder()
+                .latencyMillis(0)
+                .latencyJitterMillis(0)
+                .memberCount(1_250)
+                .pagingIgnored(true)
+                .build();
+
+        try (StubRemoteServer stub = StubRemoteServer.start(options)) {
+            ExecutionContext executionContext = new ExecutionContext();
+            BirthdayMemberItemReader reader = new BirthdayMemberItemReader(
+                    new RestTemplate(),
+                    new ObjectMapper(),
+                    stub.getUrl(),
+                    7,
+                    PAGE_SIZE
+            );
+            reader.open(executionContext);
+            long expectedMemberId = 1;
+            for (; expectedMemberId <= 600; expectedMemberId++) {
+                assertThat(reader.read().getMemberId()).isEqualTo(expectedMemberId);
+            }
+            reader.update(executionContext);
+            reader.close();
+
+            reader.open(executionContext);
+            MemberDto member;
+            while ((member = reader.read()) != null) {
+                assertThat(member.getMemberId()).isEqualTo(expectedMemberId++);
+            }
+            reader.close();
+
+            assertThat(expectedMemberId - 1).isEqualTo(1_250L);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package shop.yesaladin.batch.member.step;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import shop.yesaladin.batch.member.model.MemberMonthlySpendWatermark;
+
+/**
+ * rollupMemberMonthlySpendTasklet 을 다시 실행하거나 워터마크 없이 실행해도 같은 날의 금액이 두 번 더해지지 않는지 MySQL 컨테이너로
+ * 확인하는 테스트입니다.
+ * <p>
+ * Docker 를 사용할 수 없는 환경에서는 실행하지 않습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MemberMonthlySpendRollupStepTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.32");
+
+    private JdbcTemplate jdbcTemplate;
+    private MemberMonthlySpendWatermark watermark;
+    private MemberMonthlySpendRollupStep rollupStep;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(),
+                MYSQL.getUsername(),
+                MYSQL.getPassword()
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        for (String table : List.of(MemberMonthlySpendRollupStep.ROLLUP_TABLE,
+                MemberMonthlySpendWatermark.WATERMARK_TABLE, "payment_cancels", "payments", "member_orders")) {
+            jdbcTemplate.execute("DROP TABLE IF EXISTS " + table);
+        }
+        jdbcTemplate.execute("CREATE TABLE member_orders ("
+                + "order_id BIGINT NOT NULL, "
+                + "member_id BIGINT NOT NULL, "
+                + "PRIMARY KEY (order_id))");
+        jdbcTemplate.execute("CREATE TABLE payments ("
+                + "id BIGINT NOT NULL, "
+                + "order_id BIGINT NOT NULL, "
+                + "total_amount BIGINT NOT NULL, "
+                + "approved_datetime DATETIME NOT NULL, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE payment_cancels ("
+                + "id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "payment_id BIGINT NOT NULL, "
+                + "cancel_amount BIGINT NOT NULL, "
+                + "canceled_datetime DATETIME NOT NULL, "
+                + "PRIMARY KEY (id))");
+
+        pay(1L, 1L, 10_000L, "2023-01-15T10:00:00");
+        pay(2L, 1L, 20_000L, "2023-02-01T10:00:00");
+        pay(3L, 2L, 30_000L, "2023-02-02T10:00:00");
+        jdbcTemplate.update("INSERT INTO payment_cancels (payment_id, cancel_amount, canceled_datetime) "
+                + "VALUES (1, 4000, '2023-02-02T11:00:00')");
+
+        watermark = new MemberMonthlySpendWatermark(dataSource);
+        watermark.beforeStep(null);
+        rollupStep = new MemberMonthlySpendRollupStep(null, dataSource, watermark);
+    }
+
+    @Test
+    void replayingRolledUpDaysDoesNotAddThemAgain() throws Exception {
+        rollup("2023-02-02");
+        rollup("2023-02-02");
+        rollup("2023-02-01");
+
+        assertThat(amount(1L, "2023-01")).isEqualTo(6_000L);
+        assertThat(amount(1L, "2023-02")).isEqualTo(20_000L);
+        assertThat(amount(2L, "2023-02")).isEqualTo(30_000L);
+        assertThat(watermark.find()).contains(LocalDate.parse("2023-02-02"));
+    }
+
+    @Test
+    void failsInsteadOfBackfillingWhenTheWatermarkIsMissing() throws Exception {
+        rollup("2023-02-02");
+        jdbcTemplate.update("DELETE FROM " + MemberMonthlySpendWatermark.WATERMARK_TABLE);
+
+        assertThatThrownBy(() -> rollup("2023-02-02")).isInstanceOf(IllegalStateException.class);
+        assertThat(amount(1L, "2023-01")).isEqualTo(6_000L);
+    }
+
+    @Test
+    void failsWhenAnotherExecutionMovedTheWatermark() {
+        LocalDate initial = watermark.initialize(LocalDate.parse("2023-02-02"));
+        watermark.advance(initial, initial.plusDays(1));
+
+        assertThatThrownBy(() -> watermark.advance(initial, initial.plusDays(1)))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(watermark.find()).contains(initial.plusDays(1));
+    }
+
+    private void rollup(String targetDate) throws Exception {
+        Tasklet tasklet = rollupStep.rollupMemberMonthlySpendTasklet(targetDate);
+        StepContribution contribution = new StepContribution(
+                new StepExecution(MemberMonthlySpendRollupStep.STEP_NAME, new JobExecution(1L))
+        );
+        while (tasklet.execute(contribution, null) == RepeatStatus.CONTINUABLE) {
+            // 워터마크가 targetDate 에 도달할 때까지 하루씩 누적합니다.
+        }
+    }
+
+    private void pay(Long paymentId, Long memberId, Long amount, String approvedDatetime) {
+        jdbcTemplate.update("INSERT INTO member_orders (order_id, member_id) VALUES (?, ?)", paymentId, memberId);
+        jdbcTemplate.update("INSERT INTO payments (id, order_id, total_amount, approved_datetime) VALUES (?, ?, ?, ?)",
+                paymentId, paymentId, amount, approvedDatetime);
+    }
+
+    private Long amount(Long memberId, String yearMonth) {
+        return jdbcTemplate.queryForObject("SELECT amount FROM " + MemberMonthlySpendRollupStep.ROLLUP_TABLE
+                        + " WHERE member_id = ? AND `year_month` = ?",
+                Long.class,
+                memberId,
+                yearMonth);
+    }
+}
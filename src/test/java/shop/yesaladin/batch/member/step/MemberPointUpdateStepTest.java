@@ -0,0 +1,102 @@
+package shop.yesaladin.batch.member.step;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.database.JdbcPagingItemReader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import shop.yesaladin.batch.common.paging.UniqueSortKeyValidator;
+import shop.yesaladin.batch.member.dto.MemberPointDto;
+import shop.yesaladin.batch.member.model.MemberGrade;
+
+/**
+ * memberPointDtoItemReader 가 (회원 등급 id, 회원 id) 정렬 키로 여러 페이지를 읽을 때 화이트 등급이 아닌 회원을 한 번씩 모두 읽는지 MySQL
+ * 컨테이너로 확인하는 테스트입니다.
+ * <p>
+ * Docker 를 사용할 수 없는 환경에서는 실행하지 않습니다.
+ *
+ * @author 서민지
+ * @since 1.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class MemberPointUpdateStepTest {
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.32");
+
+    private static final int MEMBER_COUNT = 1_000;
+
+    private MemberPointUpdateStep memberPointUpdateStep;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(),
+                MYSQL.getUsername(),
+                MYSQL.getPassword()
+        );
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS members");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS member_grades");
+        jdbcTemplate.execute("CREATE TABLE member_grades ("
+                + "id INT NOT NULL, "
+                + "base_given_point BIGINT NOT NULL, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE members ("
+                + "id BIGINT NOT NULL, "
+                + "member_grade_id INT NOT NULL, "
+                + "PRIMARY KEY (id), "
+                + "KEY ix_members_member_grade_id (member_grade_id))");
+
+        for (MemberGrade grade : MemberGrade.values()) {
+            jdbcTemplate.update("INSERT INTO member_grades (id, base_given_point) VALUES (?, ?)",
+                    grade.getId(), grade.getBaseGivenPoint());
+        }
+        List<Object[]> members = new ArrayList<>(MEMBER_COUNT);
+        for (long memberId = 1; memberId <= MEMBER_COUNT; memberId++) {
+            members.add(new Object[]{memberId, gradeOf(memberId).getId()});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO members (id, member_grade_id) VALUES (?, ?)", members);
+
+        memberPointUpdateStep = new MemberPointUpdateStep(
+                null,
+                dataSource,
+                null,
+                new UniqueSortKeyValidator(dataSource, true),
+                null,
+                null
+        );
+    }
+
+    @Test
+    void readsEveryMemberAboveWhiteOnceAcrossPages() throws Exception {
+        JdbcPagingItemReader<MemberPointDto> reader = memberPointUpdateStep.memberPointDtoItemReader();
+        reader.afterPropertiesSet();
+        reader.open(new ExecutionContext());
+
+        List<Long> memberIds = new ArrayList<>();
+        MemberPointDto item;
+        while ((item = reader.read()) != null) {
+            assertThat(item.getMemberGradePoint()).isEqualTo(gradeOf(item.getMemberId()).getBaseGivenPoint());
+            memberIds.add(item.getMemberId());
+        }
+        reader.close();
+
+        assertThat(memberIds)
+                .hasSize(MEMBER_COUNT * 4 / 5)
+                .doesNotHaveDuplicates()
+                .doesNotContain(5L, 10L, 15L);
+    }
+
+    private MemberGrade gradeOf(long memberId) {
+        return MemberGrade.values()[(int) (memberId % MemberGrade.values().length)];
+    }
+}
@@ -0,0 +1,116 @@
+package shop.yesaladin.batch.order.projection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.MySQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import shop.yesaladin.batch.order.model.OrderAutoCancelWatermark;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * verifyOrderAutoCancelStep 이 비교하는 두 조회, 워터마크 이후의 주문 최근 상태 조회와 주문 상태 변경 이력 전체 조회가 워터마크 경계를 지나는
+ * 두 번의 실행에서 같은 주문을 찾는지 MySQL 컨테이너로 확인하는 테스트입니다.
+ * <p>
+ * Docker 를 사용할 수 없는 환경에서는 실행하지 않습니다.
+ *
+ * @author 이수정
+ * @since 1.0
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OrderLatestStatusProjectionTest {
+
+    private static final int ORDER = 1;
+    private static final int DEPOSIT = 2;
+    private static final int CANCEL = 7;
+
+    @Container
+    private static final MySQLContainer<?> MYSQL = new MySQLContainer<>("mysql:8.0.32");
+
+    private JdbcTemplate jdbcTemplate;
+    private OrderLatestStatusProjection projection;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                MYSQL.getJdbcUrl(),
+                MYSQL.getUsername(),
+                MYSQL.getPassword()
+        );
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + OrderLatestStatusProjection.LATEST_STATUS_TABLE);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_status_change_logs");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS order_status_codes");
+        jdbcTemplate.execute("CREATE TABLE order_status_codes ("
+                + "id INT NOT NULL, "
+                + "status VARCHAR(20) NOT NULL, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE order_status_change_logs ("
+                + "change_datetime DATETIME NOT NULL, "
+                + "order_id BIGINT NOT NULL, "
+                + "order_status_code_id INT NOT NULL, "
+                + "PRIMARY KEY (change_datetime, order_id, order_status_code_id))");
+        jdbcTemplate.update("INSERT INTO order_status_codes (id, status) VALUES (?, 'ORDER'), (?, 'DEPOSIT'), (?, 'CANCEL')",
+                ORDER, DEPOSIT, CANCEL);
+
+        projection = new OrderLatestStatusProjection(dataSource);
+        projection.beforeStep(null);
+    }
+
+    @Test
+    void incrementalCandidatesMatchFullScanAcrossWatermarkBoundary() {
+        // 첫 번째 실행 전까지의 이력
+        changeStatus(1L, ORDER, "2023-01-05T10:00:00");
+        changeStatus(2L, ORDER, "2023-01-05T11:00:00");
+        changeStatus(2L, DEPOSIT, "2023-01-06T09:00:00");
+        changeStatus(3L, ORDER, "2023-01-10T23:59:59");
+        changeStatus(4L, ORDER, "2023-01-11T00:00:00");
+        changeStatus(5L, ORDER, "2023-01-12T09:00:00");
+        changeStatus(6L, ORDER, "2023-01-11T12:00:00");
+        changeStatus(6L, DEPOSIT, "2023-01-12T08:00:00");
+        changeStatus(7L, ORDER, "2023-01-12T20:00:00");
+
+        LocalDateTime firstRunAt = LocalDateTime.parse("2023-01-13T02:00:00");
+        LocalDateTime firstChangedBefore = OrderAutoCancelWatermark.changedBefore("2023-01-10");
+        projection.sync(OrderAutoCancelWatermark.FULL_SCAN_FROM, firstRunAt);
+
+        Set<Long> firstCanceled = new HashSet<>(
+                projection.findOrderedOrderIds(OrderAutoCancelWatermark.FULL_SCAN_FROM, firstChangedBefore)
+        );
+        assertThat(firstCanceled)
+                .containsExactlyInAnyOrder(1L, 3L)
+                .isEqualTo(new HashSet<>(projection.findOrderedOrderIdsFromLogs(firstChangedBefore)));
+        firstCanceled.forEach(orderId -> changeStatus(orderId, CANCEL, "2023-01-13T02:01:00"));
+
+        // 첫 번째 실행 이후의 이력
+        changeStatus(7L, DEPOSIT, "2023-01-14T09:00:00");
+        changeStatus(8L, ORDER, "2023-01-13T10:00:00");
+
+        LocalDateTime secondRunAt = LocalDateTime.parse("2023-01-15T02:00:00");
+        LocalDateTime secondChangedBefore = OrderAutoCancelWatermark.changedBefore("2023-01-12");
+        projection.sync(firstRunAt, secondRunAt);
+
+        Set<Long> secondCanceled = new HashSet<>(
+                projection.findOrderedOrderIds(firstChangedBefore, secondChangedBefore)
+        );
+        assertThat(secondCanceled)
+                .containsExactlyInAnyOrder(4L, 5L)
+                .isEqualTo(new HashSet<>(projection.findOrderedOrderIdsFromLogs(secondChangedBefore)));
+    }
+
+    private void changeStatus(Long orderId, int statusCodeId, String changeDatetime) {
+        jdbcTemplate.update(
+                "INSERT INTO order_status_change_logs (change_datetime, order_id, order_status_code_id) VALUES (?, ?, ?)",
+                LocalDateTime.parse(changeDatetime),
+                orderId,
+                statusCodeId
+        );
+    }
+}